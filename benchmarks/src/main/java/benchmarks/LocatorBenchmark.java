@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// CSS selectors against the XPath expressions the page objects use, on the cart page with one product.
+// The pairs are not equivalent in general: @class='amount' compares the whole attribute, td.amount matches
+// one class among several. prepare() checks that both find the same amounts on the cart page being
+// measured, so the difference in the scores is the locator strategy alone.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark extends ShopSession {
+
+    // CheckoutPage.itemPrice
+    private static final By AMOUNT_XPATH = By.xpath("(//td[@class='amount'])[1]");
+    private static final By AMOUNT_CSS = By.cssSelector("td.amount");
+
+    private static final By ALL_AMOUNTS_XPATH = By.xpath("//td[@class='amount']");
+    private static final By ALL_AMOUNTS_CSS = By.cssSelector("td.amount");
+
+    @Override
+    protected void prepare() {
+        Object checkoutPage = newPage("CheckoutPage", driver);
+        call(checkoutPage, "addAwesomeChipsToCart");
+        // Both lists are in document order, so equal lists also mean the same first element.
+        List<WebElement> byXpath = driver.findElements(ALL_AMOUNTS_XPATH);
+        List<WebElement> byCss = driver.findElements(ALL_AMOUNTS_CSS);
+        if (byXpath.isEmpty() || !byXpath.equals(byCss)) {
+            throw new IllegalStateException(ALL_AMOUNTS_XPATH + " and " + ALL_AMOUNTS_CSS + " locate different elements on the cart page: "
+                    + byXpath.size() + " against " + byCss.size());
+        }
+    }
+
+    @Benchmark
+    public WebElement firstAmountByXpath() {
+        return driver.findElement(AMOUNT_XPATH);
+    }
+
+    @Benchmark
+    public WebElement firstAmountByCss() {
+        return driver.findElement(AMOUNT_CSS);
+    }
+
+    @Benchmark
+    public List<WebElement> allAmountsByXpath() {
+        return driver.findElements(ALL_AMOUNTS_XPATH);
+    }
+
+    @Benchmark
+    public List<WebElement> allAmountsByCss() {
+        return driver.findElements(ALL_AMOUNTS_CSS);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+// Cost of creating a page object. None of these talk to the browser: PageFactory only installs lazy proxies,
+// so this is the reflection and proxy work paid in every @BeforeMethod and on every 'new XPage(driver)'.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageObjectBenchmark extends ShopSession {
+
+    @Param({"HomepagePage", "CheckoutPage", "LoginPage"})
+    public String page;
+
+    private Constructor<?> constructor;
+    private Object instance;
+    private Constructor<?> cachingFactory;
+
+    @Override
+    protected void prepare() throws ReflectiveOperationException {
+        constructor = frameworkClass(page).getConstructor(WebDriver.class);
+        instance = constructor.newInstance(driver);
+        cachingFactory = frameworkClass("CachingElementLocatorFactory").getConstructor(SearchContext.class);
+    }
+
+    // The full constructor as the tests use it: element cache decorator plus the page's DomWaits.
+    @Benchmark
+    public Object newPageObject() throws ReflectiveOperationException {
+        return constructor.newInstance(driver);
+    }
+
+    // initElements alone with the PageFactory default locators.
+    @Benchmark
+    public Object initElementsDefault() {
+        PageFactory.initElements(new DefaultElementLocatorFactory(driver), instance);
+        return instance;
+    }
+
+    // initElements alone with the framework's caching, stale-element retrying locators.
+    @Benchmark
+    public Object initElementsCaching() throws ReflectiveOperationException {
+        Object factory = cachingFactory.newInstance(driver);
+        PageFactory.initElements((FieldDecorator) call(factory, "decorator"), instance);
+        return instance;
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Browser session on the local copy of the shop, shared by the benchmarks of one trial.
+// JMH does not accept benchmarks in the default package, where the framework classes live,
+// so these are reached by name through the small reflection helpers below. The cost of a reflective call
+// is nanoseconds, far below the WebDriver round trips being measured.
+@State(Scope.Thread)
+public class ShopSession {
+
+    protected WebDriver driver;
+    private Object shop;
+
+    @Setup(Level.Trial)
+    public void openShop() throws ReflectiveOperationException {
+        // Headless, fixed size window; can still be overridden with -Dbrowser.profile=headed.
+        if (System.getProperty("browser.profile") == null) {
+            System.setProperty("browser.profile", "lean");
+        }
+        Path snapshot = Paths.get(System.getProperty("shop.snapshot.dir", defaultSnapshot()));
+        shop = callStatic("LocalShopServer", "start", new Class[]{Path.class, int.class}, snapshot, 0);
+        driver = (WebDriver) callStatic("DriverFactory", "createDriver", new Class[0]);
+        driver.get((String) call(shop, "getBaseUrl"));
+        prepare();
+    }
+
+    // Setup of the benchmark itself, run once the shop is open. JMH does not order the trial @Setup methods
+    // of a class hierarchy, so subclasses override this instead of declaring their own.
+    protected void prepare() throws ReflectiveOperationException {
+    }
+
+    @TearDown(Level.Trial)
+    public void closeShop() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (shop != null) {
+            call(shop, "stop");
+        }
+    }
+
+    // The shop fixture checked in with the framework, found from the project root as well as from benchmarks/.
+    private static String defaultSnapshot() {
+        Path fromRoot = Paths.get("src/test/resources/shop");
+        return Files.isDirectory(fromRoot) ? fromRoot.toString() : "../src/test/resources/shop";
+    }
+
+    protected static Class<?> frameworkClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Framework class " + name + " not found, run 'mvn install' in the project root first", e);
+        }
+    }
+
+    protected static Object newPage(String pageClass, WebDriver driver) {
+        try {
+            return frameworkClass(pageClass).getConstructor(WebDriver.class).newInstance(driver);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + pageClass, e);
+        }
+    }
+
+    protected static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(type.getSimpleName() + "." + name + " not found", e);
+        }
+    }
+
+    protected static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected static Object call(Object target, String name) {
+        return invoke(method(target.getClass(), name), target);
+    }
+
+    private static Object callStatic(String type, String name, Class<?>[] parameterTypes, Object... args) {
+        return invoke(method(frameworkClass(type), name, parameterTypes), null, args);
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reading the product list of the homepage: one getText() round trip per element, as the tests used to,
+// against the single script call behind HomepagePage.getProductNames() and getProductCards().
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextExtractionBenchmark extends ShopSession {
+
+    // Same locators as HomepagePage.PRODUCT_NAME_CSS and PRODUCT_PRICE_XPATH.
+    private By names;
+    private By prices;
+
+    private Object homepage;
+    private Method productNames;
+    private Method productCards;
+
+    @Override
+    protected void prepare() throws ReflectiveOperationException {
+        Class<?> homepageClass = frameworkClass("HomepagePage");
+        names = By.cssSelector(constant(homepageClass, "PRODUCT_NAME_CSS"));
+        prices = By.xpath(constant(homepageClass, "PRODUCT_PRICE_XPATH"));
+        homepage = newPage("HomepagePage", driver);
+        productNames = method(homepageClass, "getProductNames");
+        productCards = method(homepageClass, "getProductCards");
+    }
+
+    private static String constant(Class<?> type, String name) throws ReflectiveOperationException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return (String) field.get(null);
+    }
+
+    @Benchmark
+    public List<String> namesPerElement() {
+        List<String> texts = new ArrayList<>();
+        for (WebElement element : driver.findElements(names)) {
+            texts.add(element.getText());
+        }
+        return texts;
+    }
+
+    @Benchmark
+    public Object namesBulk() {
+        return invoke(productNames, homepage);
+    }
+
+    @Benchmark
+    public List<String> namesAndPricesPerElement() {
+        List<String> texts = new ArrayList<>();
+        for (WebElement element : driver.findElements(names)) {
+            texts.add(element.getText());
+        }
+        for (WebElement element : driver.findElements(prices)) {
+            texts.add(element.getText());
+        }
+        return texts;
+    }
+
+    @Benchmark
+    public Object namesAndPricesBulk() {
+        return invoke(productCards, homepage);
+    }
+}
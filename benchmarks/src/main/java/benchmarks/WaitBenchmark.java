@@ -0,0 +1,74 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// How long after an element appears each kind of wait notices it. Before every invocation the page schedules
+// a new element to be added after 'appearAfterMillis'; the score minus that delay is the overhead of the wait.
+// WebDriverWait polls every 500 ms by default, DomWait reacts to the DOM mutation itself.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class WaitBenchmark extends ShopSession {
+
+    private static final By TARGET = By.id("benchmark-target");
+
+    private static final String SCHEDULE_SCRIPT =
+            "var old = document.getElementById('benchmark-target'); if (old) { old.remove(); }"
+                    + "setTimeout(function () {"
+                    + "  var e = document.createElement('div'); e.id = 'benchmark-target'; e.textContent = 'ready';"
+                    + "  document.body.appendChild(e);"
+                    + "}, arguments[0]);";
+
+    @Param({"0", "300"})
+    public long appearAfterMillis;
+
+    private Object domWait;
+    private Method untilVisible;
+
+    @Override
+    protected void prepare() throws ReflectiveOperationException {
+        Class<?> domWaitClass = frameworkClass("DomWait");
+        domWait = domWaitClass.getConstructor(WebDriver.class, Duration.class).newInstance(driver, Duration.ofSeconds(10));
+        untilVisible = method(domWaitClass, "untilVisible", By.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void scheduleElement() {
+        ((JavascriptExecutor) driver).executeScript(SCHEDULE_SCRIPT, appearAfterMillis);
+    }
+
+    @Benchmark
+    public Object webDriverWait() {
+        return new WebDriverWait(driver, 10).until(ExpectedConditions.visibilityOfElementLocated(TARGET));
+    }
+
+    @Benchmark
+    public Object webDriverWaitPolling50ms() {
+        return new WebDriverWait(driver, 10, 50).until(ExpectedConditions.visibilityOfElementLocated(TARGET));
+    }
+
+    @Benchmark
+    public Object domWait() {
+        return invoke(untilVisible, domWait, TARGET);
+    }
+}
@@ -0,0 +1,349 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// Local HTTP proxy the test browsers go through, selected with -Dproxy.mode:
+//   record - every response is fetched once and saved to the archive folder, later requests are served from it
+//   replay - responses only come from the archive, nothing goes to the network
+//   block  - live traffic, but the configured third-party hosts (proxy.block) and, optionally, images are dropped
+// Blocking also applies while recording and replaying.
+//
+// The shop is served through the proxy itself (reverse proxy on http://127.0.0.1:<port>/), because the
+// public site is HTTPS and encrypted traffic cannot be recorded. Other hosts reach the proxy through
+// Chrome's --proxy-server: plain HTTP is recorded and replayed, HTTPS is either blocked or tunnelled untouched.
+public final class AssetProxy {
+
+    public enum Mode {OFF, RECORD, REPLAY, BLOCK}
+
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".png", ".jpg", ".jpeg", ".gif", ".webp", ".svg", ".ico");
+
+    // Request headers forwarded to the origin. Accept-Encoding is left out on purpose,
+    // so the archive always holds plain bodies.
+    private static final List<String> FORWARDED_HEADERS = List.of("accept", "accept-language", "user-agent", "content-type");
+
+    private final Mode mode;
+    private final URI upstream;
+    private final Path archive;
+    private final List<String> blockedHosts;
+    private final boolean blockImages;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private AssetProxy(Mode mode, URI upstream, Path archive, List<String> blockedHosts, boolean blockImages) throws IOException {
+        this.mode = mode;
+        this.upstream = upstream.resolve("/");
+        this.archive = archive;
+        this.blockedHosts = blockedHosts;
+        this.blockImages = blockImages;
+        this.serverSocket = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+    }
+
+    // Starts the proxy configured by the proxy.* settings for the given site,
+    // or returns null when -Dproxy.mode is not set.
+    public static AssetProxy startFromConfig(String siteUrl) {
+        Mode mode = Mode.valueOf(TestConfig.get("proxy.mode", "off").toUpperCase(Locale.ROOT));
+        if (mode == Mode.OFF) {
+            return null;
+        }
+        List<String> blocked = Arrays.stream(TestConfig.get("proxy.block", "").split(","))
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        try {
+            Path archive = Paths.get(TestConfig.get("proxy.archive", "proxy-archive"));
+            Files.createDirectories(archive);
+            AssetProxy proxy = new AssetProxy(mode, URI.create(siteUrl), archive, blocked,
+                    TestConfig.getBoolean("proxy.block.images", false));
+            proxy.start();
+            System.out.println("Asset proxy in " + mode + " mode on " + proxy.getAddress() + " for " + proxy.upstream
+                    + ", archive " + archive.toAbsolutePath());
+            return proxy;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the asset proxy", e);
+        }
+    }
+
+    // host:port to use for Chrome's --proxy-server.
+    public String getAddress() {
+        return "127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    // The site URL rewritten to go through the proxy, keeping the path and the hash route.
+    public String rewrite(String siteUrl) {
+        URI uri = URI.create(siteUrl);
+        String rest = siteUrl.substring(siteUrl.indexOf(uri.getRawAuthority()) + uri.getRawAuthority().length());
+        return "http://" + getAddress() + rest;
+    }
+
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // The proxy is going away anyway.
+        }
+        executor.shutdownNow();
+    }
+
+    private void start() {
+        Thread acceptor = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    executor.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    if (!serverSocket.isClosed()) {
+                        System.out.println("Asset proxy could not accept a connection: " + e.getMessage());
+                    }
+                }
+            }
+        }, "asset-proxy");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return;
+            }
+            String[] parts = requestLine.split(" ");
+            Map<String, String> headers = readHeaders(in);
+
+            if (parts[0].equals("CONNECT")) {
+                tunnel(parts[1], socket, in, out);
+                return;
+            }
+
+            // Absolute-form targets come from --proxy-server, origin-form ones are requests for the shop itself.
+            URI target = parts[1].startsWith("/") ? upstream.resolve(parts[1]) : URI.create(parts[1]);
+            byte[] body = readBody(in, headers);
+
+            if (isBlocked(target)) {
+                respond(out, 204, "text/plain", new byte[0]);
+                return;
+            }
+            Recorded response = fetch(parts[0], target, headers, body);
+            if (response == null) {
+                respond(out, 504, "text/plain", ("Not in the proxy archive: " + target).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            respond(out, response.status, response.contentType, response.body);
+        } catch (IOException | InterruptedException e) {
+            if (!(e instanceof SocketException)) {
+                System.out.println("Asset proxy request failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private Recorded fetch(String method, URI target, Map<String, String> headers, byte[] body) throws IOException, InterruptedException {
+        String key = key(method, target, body);
+        if (mode == Mode.RECORD || mode == Mode.REPLAY) {
+            Recorded archived = load(key);
+            if (archived != null || mode == Mode.REPLAY) {
+                return archived;
+            }
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach((name, value) -> {
+            if (FORWARDED_HEADERS.contains(name)) {
+                request.header(name, value);
+            }
+        });
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        Recorded recorded = new Recorded(response.statusCode(),
+                response.headers().firstValue("content-type").orElse("application/octet-stream"), response.body());
+
+        if (mode == Mode.RECORD && response.statusCode() < 400) {
+            save(key, target, recorded);
+        }
+        return recorded;
+    }
+
+    // HTTPS cannot be looked into, so CONNECT tunnels are only allowed through untouched or refused.
+    // In replay mode everything off the machine is refused, the run must not touch the network.
+    private void tunnel(String authority, Socket client, InputStream clientIn, OutputStream clientOut) throws IOException {
+        String host = authority.contains(":") ? authority.substring(0, authority.lastIndexOf(':')) : authority;
+        int port = authority.contains(":") ? Integer.parseInt(authority.substring(authority.lastIndexOf(':') + 1)) : 443;
+        if (isBlockedHost(host) || (mode == Mode.REPLAY && !isLoopback(host))) {
+            clientOut.write("HTTP/1.1 403 Forbidden\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            clientOut.flush();
+            return;
+        }
+
+        try (Socket origin = new Socket()) {
+            origin.connect(new InetSocketAddress(host, port), 10_000);
+            clientOut.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            clientOut.flush();
+            executor.execute(() -> pipe(clientIn, origin));
+            origin.getInputStream().transferTo(clientOut);
+        } catch (SocketException e) {
+            // One of the two sides closed the tunnel.
+        }
+        client.shutdownOutput();
+    }
+
+    // Decided from the name alone, replay mode must not even wait for a DNS lookup.
+    private static boolean isLoopback(String host) {
+        return host.equalsIgnoreCase("localhost") || host.startsWith("127.") || host.equals("[::1]") || host.equals("::1");
+    }
+
+    private static void pipe(InputStream from, Socket to) {
+        try {
+            from.transferTo(to.getOutputStream());
+            to.shutdownOutput();
+        } catch (IOException ignored) {
+            // The tunnel is closed by the other direction.
+        }
+    }
+
+    private boolean isBlocked(URI target) {
+        if (isBlockedHost(target.getHost())) {
+            return true;
+        }
+        String path = target.getPath() == null ? "" : target.getPath().toLowerCase(Locale.ROOT);
+        return blockImages && IMAGE_EXTENSIONS.stream().anyMatch(path::endsWith);
+    }
+
+    private boolean isBlockedHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        String name = host.toLowerCase(Locale.ROOT);
+        return blockedHosts.stream().anyMatch(blocked -> name.equals(blocked) || name.endsWith("." + blocked));
+    }
+
+    private Recorded load(String key) throws IOException {
+        Path meta = archive.resolve(key + ".properties");
+        if (!Files.isRegularFile(meta)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(meta)) {
+            properties.load(in);
+        }
+        return new Recorded(Integer.parseInt(properties.getProperty("status")), properties.getProperty("content-type"),
+                Files.readAllBytes(archive.resolve(key + ".body")));
+    }
+
+    // The body is written before its metadata and both are moved into place atomically,
+    // so parallel browsers never replay a half written entry.
+    private void save(String key, URI target, Recorded recorded) throws IOException {
+        Path body = Files.createTempFile(archive, key, ".tmp");
+        Files.write(body, recorded.body);
+        Files.move(body, archive.resolve(key + ".body"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Properties properties = new Properties();
+        properties.setProperty("url", target.toString());
+        properties.setProperty("status", String.valueOf(recorded.status));
+        properties.setProperty("content-type", recorded.contentType);
+        Path meta = Files.createTempFile(archive, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(meta)) {
+            properties.store(out, null);
+        }
+        Files.move(meta, archive.resolve(key + ".properties"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String key(String method, URI target, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + target).getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 32);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(OutputStream out, int status, String contentType, byte[] body) throws IOException {
+        String head = "HTTP/1.1 " + status + " " + (status < 400 ? "OK" : "Error") + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                line.write(c);
+            }
+        }
+        return c == -1 && line.size() == 0 ? null : line.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static Map<String, String> readHeaders(InputStream in) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+        String length = headers.get("content-length");
+        return length == null ? new byte[0] : in.readNBytes(Integer.parseInt(length));
+    }
+
+    private static final class Recorded {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        private Recorded(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
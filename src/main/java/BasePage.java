@@ -1,32 +1,140 @@
-// Importing WebDriver class from the Selenium library.
-// WebDriver is used for interacting with the browser in automation testing.
+// Importing WebDriver, By and JavascriptExecutor from the Selenium library.
+// WebDriver is used for interacting with the browser in automation testing,
+// By describes how an element is located and JavascriptExecutor runs scripts inside the page.
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 
 // Importing PageFactory class from the Selenium library.
 // PageFactory is a support class in Selenium for implementing the Page Object Model (POM) pattern.
 // It initializes WebElements within a page class.
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.testng.Assert;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 // Declaring an abstract class named BasePage.
 // An abstract class is a class that cannot be instantiated and can have abstract methods (methods without a body).
 // BasePage will serve as a parent class for other page classes.
 public abstract class BasePage {
 
+    // Script returning the text of every element matching each of the given queries.
+    private static final String READ_TEXTS_SCRIPT = Locators.FIND_ALL_FUNCTION
+            + "return arguments[0].map(function (q) {"
+            + "  return findAll(q).map(function (e) { return (e.innerText || e.textContent || '').trim(); });"
+            + "});";
+
+    // Upper bound for the presence and absence assertions below.
+    private static final long ASSERT_TIMEOUT_MILLIS = TestConfig.getInt("page.assert-timeout-ms", 2000);
+
+    // Element caching can be switched off with -Dpage.element-cache=false, e.g. to rule it out while debugging.
+    private static final boolean ELEMENT_CACHE = TestConfig.getBoolean("page.element-cache", true);
+
     // Declaring a protected WebDriver variable named 'driver'.
     // The 'protected' access modifier means that this variable is accessible within the same package
     // and by subclasses in other packages.
     protected WebDriver driver;
 
+    // The locator factory of this page instance, which remembers the elements it already found.
+    private CachingElementLocatorFactory locatorFactory;
+
+    // Event driven waits for this page: one script call per wait instead of one round trip per poll.
+    public DomWait domWait;
+
+    // Shorter wait used by the presence and absence assertions.
+    private final DomWait assertWait;
+
     // Constructor for the BasePage class that takes a WebDriver object as an argument.
     // When a new instance of a class that extends BasePage is created, this constructor will be called,
     // and the passed WebDriver object will be assigned to the 'driver' variable.
     public BasePage(WebDriver driver) {
         // Assigning the passed WebDriver object to the 'driver' variable.
         this.driver = driver;
+        this.domWait = new DomWait(driver, Duration.ofSeconds(10));
+        this.assertWait = new DomWait(driver, Duration.ofMillis(ASSERT_TIMEOUT_MILLIS));
+    }
+
+    // Initializing the WebElements of the class that extends BasePage using PageFactory.
+    // 'this' refers to the current class instance, so the PageFactory will initialize the WebElements
+    // defined in the current page class (which extends BasePage).
+    // With the element cache on, each element is located once and only looked up again when it went stale.
+    // Every page calls this at the end of its constructor. The pages are final, so no subclass can see
+    // its fields before PageFactory has set them.
+    protected final void initElements() {
+        if (ELEMENT_CACHE) {
+            locatorFactory = new CachingElementLocatorFactory(driver);
+            PageFactory.initElements(locatorFactory.decorator(), this);
+        } else {
+            PageFactory.initElements(driver, this);
+        }
+    }
+
+    // Share of element accesses on this page served from the element cache (0 when the cache is off).
+    public double getElementCacheHitRate() {
+        return locatorFactory == null ? 0 : locatorFactory.getHitRate();
+    }
+
+    // Reads the text of all elements matching each locator with one script execution,
+    // instead of one getText() round trip per element. The lists keep the document order.
+    @SuppressWarnings("unchecked")
+    protected List<List<String>> readTexts(By... locators) {
+        List<Map<String, String>> queries = new ArrayList<>();
+        for (By locator : locators) {
+            queries.add(Locators.toQuery(locator));
+        }
+        List<List<Object>> texts = (List<List<Object>>) ((JavascriptExecutor) driver).executeScript(READ_TEXTS_SCRIPT, queries);
+        return texts.stream()
+                .map(list -> list.stream().map(String::valueOf).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    // Turns a displayed amount such as "$15.99" into a number.
+    protected static double parsePrice(String amount) {
+        return Double.parseDouble(amount.replace("$", "").trim());
+    }
+
+    // Returns the locator of a @FindBy field of this page, so presence checks use the same locator as the field.
+    protected By locatorOf(String fieldName) {
+        for (Class<?> type = getClass(); type != BasePage.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                return new Annotations(field).buildBy();
+            } catch (NoSuchFieldException e) {
+                // Look further up the page hierarchy.
+            }
+        }
+        throw new IllegalArgumentException(getClass().getSimpleName() + " has no @FindBy field named '" + fieldName + "'");
+    }
+
+    // Passes as soon as no element matching the locator is displayed; fails after the timeout with the number still shown.
+    // Unlike catching NoSuchElementException, an element that is still being removed gets the time to go away.
+    public void assertAbsent(By locator, String message) {
+        try {
+            assertWait.untilNoneDisplayed(locator);
+        } catch (DomWait.ConditionTimeoutException e) {
+            Assert.fail(message + " " + e.getReason());
+        }
+    }
+
+    // Same as assertAbsent, but first waits for an element proving the page has rendered,
+    // so "not rendered yet" cannot be mistaken for "gone".
+    public void assertAbsent(By locator, By renderedAnchor, String message) {
+        assertPresent(renderedAnchor, message + " The page did not render.");
+        assertAbsent(locator, message);
+    }
 
-        // Initializing the WebElements of the class that extends BasePage using PageFactory.
-        // 'this' refers to the current class instance, so the PageFactory will initialize the WebElements
-        // defined in the current page class (which extends BasePage).
-        PageFactory.initElements(driver, this);
+    // Passes as soon as an element matching the locator is displayed; fails after the timeout.
+    public void assertPresent(By locator, String message) {
+        try {
+            assertWait.untilVisible(locator);
+        } catch (DomWait.ConditionTimeoutException e) {
+            Assert.fail(message + " " + e.getReason());
+        }
     }
 }
@@ -0,0 +1,102 @@
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs the same tests on several browsers at once: -Dbrowser.matrix=chrome,firefox.
+// Before the suite starts every <test> of testng.xml is copied once per browser, with the browser as its
+// 'browser' parameter, and the suite runs these copies side by side, each with the usual number of threads.
+// Hooks asks for a session of the browser of its <test>, the report tags every test with its browser, and a
+// summary with the results and timings per browser is added at the end of the run.
+// Without the setting every test runs on -Dbrowser (default chrome), as before.
+public final class BrowserMatrix {
+
+    public static final String PARAMETER = "browser";
+
+    public static final List<String> BROWSERS = parse(TestConfig.get("browser.matrix", ""));
+
+    private static final Map<String, Totals> TOTALS = new ConcurrentHashMap<>();
+
+    private BrowserMatrix() {
+    }
+
+    public static boolean isActive() {
+        return !BROWSERS.isEmpty();
+    }
+
+    // Browser of the <test> a test runs in.
+    public static String browserOf(ITestContext context) {
+        String browser = context == null ? null : context.getCurrentXmlTest().getParameter(PARAMETER);
+        return browser == null ? DriverFactory.DEFAULT_BROWSER : browser;
+    }
+
+    // Copies every <test> of the suite once per browser and lets the copies run at the same time.
+    static void expand(XmlSuite suite, int threads) {
+        List<XmlTest> copies = new ArrayList<>();
+        for (XmlTest test : new ArrayList<>(suite.getTests())) {
+            for (String browser : BROWSERS) {
+                XmlTest copy = (XmlTest) test.clone();
+                copy.setName(test.getName() + " [" + browser + "]");
+                copy.addParameter(PARAMETER, browser);
+                copy.setParallel(suite.getParallel());
+                copy.setThreadCount(threads);
+                copies.add(copy);
+            }
+        }
+        // A clone adds itself to the suite, so the list is rebuilt from the copies alone.
+        suite.getTests().clear();
+        suite.getTests().addAll(copies);
+        suite.setParallel(XmlSuite.ParallelMode.TESTS);
+        suite.setThreadCount(suite.getTests().size());
+        System.out.println("Running suite '" + suite.getName() + "' on " + String.join(", ", BROWSERS) + " side by side.");
+    }
+
+    public static void record(ITestResult result) {
+        TOTALS.computeIfAbsent(browserOf(result.getTestContext()), browser -> new Totals()).add(result);
+    }
+
+    // One line per browser: tests, passed, failed and the time spent in them.
+    public static String describe() {
+        StringBuilder text = new StringBuilder(String.format("%-10s %6s %6s %6s %10s %10s%n", "browser", "tests", "pass", "fail", "total s", "mean ms"));
+        new TreeMap<>(TOTALS).forEach((browser, totals) -> text.append(String.format("%-10s %6d %6d %6d %10.1f %10d%n",
+                browser, totals.tests.get(), totals.passed.get(), totals.tests.get() - totals.passed.get(),
+                totals.millis.get() / 1000.0, totals.millis.get() / Math.max(1, totals.tests.get()))));
+        return text.toString();
+    }
+
+    private static List<String> parse(String matrix) {
+        List<String> browsers = new ArrayList<>();
+        for (String browser : Arrays.asList(matrix.split(","))) {
+            String name = browser.trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty() && !browsers.contains(name)) {
+                DriverFactory.checkSupported(name);
+                browsers.add(name);
+            }
+        }
+        return List.copyOf(browsers);
+    }
+
+    private static class Totals {
+        private final AtomicInteger tests = new AtomicInteger();
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicLong millis = new AtomicLong();
+
+        private void add(ITestResult result) {
+            tests.incrementAndGet();
+            if (result.isSuccess()) {
+                passed.incrementAndGet();
+            }
+            millis.addAndGet(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+        }
+    }
+}
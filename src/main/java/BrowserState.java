@@ -0,0 +1,142 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Snapshot of what the shop remembers about a visitor in the browser: cookies, local and session storage
+// and the route (everything of the URL after the origin). Captured from a live session and written back
+// into another session of the same site, so a test can start where a UI setup path would have left it.
+public class BrowserState {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final String CAPTURE_SCRIPT =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; }"
+                    + "return { local: dump(window.localStorage), session: dump(window.sessionStorage),"
+                    + "         route: location.pathname + location.search + location.hash };";
+
+    // Replaces both storages and moves to the route without loading anything; the caller reloads once afterwards.
+    private static final String RESTORE_SCRIPT =
+            "var state = arguments[0];"
+                    + "window.localStorage.clear(); window.sessionStorage.clear();"
+                    + "Object.keys(state.local).forEach(function (k) { window.localStorage.setItem(k, state.local[k]); });"
+                    + "Object.keys(state.session).forEach(function (k) { window.sessionStorage.setItem(k, state.session[k]); });"
+                    + "history.replaceState(null, '', state.route);";
+
+    private Map<String, String> localStorage = new LinkedHashMap<>();
+    private Map<String, String> sessionStorage = new LinkedHashMap<>();
+    private List<StoredCookie> cookies = new ArrayList<>();
+    private String route;
+
+    @SuppressWarnings("unchecked")
+    public static BrowserState capture(WebDriver driver) {
+        Map<String, Object> dump = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        BrowserState state = new BrowserState();
+        ((Map<String, Object>) dump.get("local")).forEach((k, v) -> state.localStorage.put(k, String.valueOf(v)));
+        ((Map<String, Object>) dump.get("session")).forEach((k, v) -> state.sessionStorage.put(k, String.valueOf(v)));
+        state.route = String.valueOf(dump.get("route"));
+        for (Cookie cookie : driver.manage().getCookies()) {
+            state.cookies.add(new StoredCookie(cookie));
+        }
+        return state;
+    }
+
+    // Writes this state into the session, which has to be on a page of the same site already,
+    // and reloads once so the app starts up from it.
+    public void restore(WebDriver driver) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("local", localStorage);
+        state.put("session", sessionStorage);
+        state.put("route", route);
+        ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, state);
+
+        driver.manage().deleteAllCookies();
+        for (StoredCookie cookie : cookies) {
+            driver.manage().addCookie(cookie.toCookie());
+        }
+        driver.navigate().refresh();
+    }
+
+    // Restores this state and waits until 'proof', an element only displayed in that state, shows up.
+    // When it does not, the session is put back to where it was before and false is returned.
+    public boolean restore(WebDriver driver, By proof, Duration timeout) {
+        BrowserState before = capture(driver);
+        restore(driver);
+        try {
+            new DomWait(driver, timeout).untilVisible(proof);
+            return true;
+        } catch (DomWait.ConditionTimeoutException e) {
+            System.out.println("Restored browser state did not show " + proof + ". " + e.getReason());
+            before.restore(driver);
+            return false;
+        }
+    }
+
+    // True when the app left nothing behind in the browser, i.e. it keeps this state in memory only.
+    public boolean isEmpty() {
+        return localStorage.isEmpty() && sessionStorage.isEmpty() && cookies.isEmpty();
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public static BrowserState read(Path file) throws IOException {
+        return GSON.fromJson(Files.readString(file, StandardCharsets.UTF_8), BrowserState.class);
+    }
+
+    // Written to a temporary file first, so parallel workers never read half a file.
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        Files.writeString(temporary, GSON.toJson(this), StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The parts of a cookie that can be set again through WebDriver. The domain is left out,
+    // so the cookie belongs to whatever host the shop is served from (remote site or local snapshot).
+    private static class StoredCookie {
+        private String name;
+        private String value;
+        private String path;
+        private Long expiry;
+        private boolean secure;
+        private boolean httpOnly;
+
+        // Used by Gson when a seed is read back.
+        private StoredCookie() {
+        }
+
+        private StoredCookie(Cookie cookie) {
+            name = cookie.getName();
+            value = cookie.getValue();
+            path = cookie.getPath();
+            expiry = cookie.getExpiry() == null ? null : cookie.getExpiry().getTime();
+            secure = cookie.isSecure();
+            httpOnly = cookie.isHttpOnly();
+        }
+
+        private Cookie toCookie() {
+            return new Cookie.Builder(name, value)
+                    .path(path)
+                    .expiresOn(expiry == null ? null : new Date(expiry))
+                    .isSecure(secure)
+                    .isHttpOnly(httpOnly)
+                    .build();
+        }
+    }
+}
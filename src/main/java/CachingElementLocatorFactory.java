@@ -0,0 +1,140 @@
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ElementLocatorFactory used by BasePage instead of the PageFactory default.
+// The default locator runs findElement over the wire on every access of a @FindBy field, so reading
+// the same element three times costs three round trips. Here every single-element field of a page
+// instance remembers the element it resolved; when the browser reports it as stale (the page re-rendered),
+// the element is looked up again and the call is retried once, transparently for the page object.
+// List fields are not cached: their content changes with every search and sort.
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    // Totals of all page instances, printed at the end of the suite.
+    private static final AtomicLong TOTAL_HITS = new AtomicLong();
+    private static final AtomicLong TOTAL_LOOKUPS = new AtomicLong();
+
+    private final SearchContext searchContext;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachingElementLocator(new DefaultElementLocator(searchContext, field));
+    }
+
+    // Field decorator creating the element proxies that re-locate stale elements.
+    public FieldDecorator decorator() {
+        return new DefaultFieldDecorator(this) {
+            @Override
+            protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+                return (WebElement) Proxy.newProxyInstance(loader,
+                        new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                        new RelocatingElementHandler(locator));
+            }
+        };
+    }
+
+    // Share of element accesses of this page that were served without a findElement call.
+    public double getHitRate() {
+        return hitRate(hits.get(), lookups.get());
+    }
+
+    public static String describeTotals() {
+        long lookups = TOTAL_LOOKUPS.get();
+        return String.format("Element cache: %d of %d element lookups served from cache (%.1f%%)",
+                TOTAL_HITS.get(), lookups, hitRate(TOTAL_HITS.get(), lookups) * 100);
+    }
+
+    private static double hitRate(long hits, long lookups) {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private void count(boolean hit) {
+        lookups.incrementAndGet();
+        TOTAL_LOOKUPS.incrementAndGet();
+        if (hit) {
+            hits.incrementAndGet();
+            TOTAL_HITS.incrementAndGet();
+        }
+    }
+
+    private class CachingElementLocator implements ElementLocator {
+        private final ElementLocator delegate;
+        private volatile WebElement cached;
+
+        private CachingElementLocator(ElementLocator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebElement findElement() {
+            WebElement element = cached;
+            count(element != null);
+            if (element == null) {
+                element = delegate.findElement();
+                cached = element;
+            }
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return delegate.findElements();
+        }
+
+        private void invalidate() {
+            cached = null;
+        }
+    }
+
+    private static class RelocatingElementHandler implements InvocationHandler {
+        private final ElementLocator locator;
+
+        private RelocatingElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            WebElement element = locator.findElement();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException) || !(locator instanceof CachingElementLocator)) {
+                    throw e.getCause();
+                }
+            }
+
+            // The cached element is gone from the page, look it up again and retry once.
+            ((CachingElementLocator) locator).invalidate();
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.asserts.SoftAssert;
 
 import java.util.List;
@@ -16,11 +16,7 @@ import static org.testng.Assert.assertEquals;
 
 // Declaring the CheckoutPage class, which extends the BasePage class.
 // By extending BasePage, CheckoutPage inherits the WebDriver instance and the PageFactory initialization.
-public class CheckoutPage extends BasePage {
-
-    // Declaring a public WebDriverWait variable named 'wait'.
-    // WebDriverWait is used for implementing explicit waits during interactions with web elements.
-    public WebDriverWait wait;
+public final class CheckoutPage extends BasePage {
 
     public SoftAssert softAssert;
 
@@ -30,11 +26,8 @@ public class CheckoutPage extends BasePage {
     public CheckoutPage(WebDriver driver) {
         // Calling the parent class (BasePage) constructor using 'super' to initialize the WebDriver.
         super(driver);
-
-        // Initializing the WebDriverWait object with a 10-second timeout.
-        // This will be used to wait for certain conditions or elements during test execution.
-        wait = new WebDriverWait(driver, 10);
         softAssert = new SoftAssert();
+        initElements();
     }
 
     // Locating the search bar element using the @FindBy annotation.
@@ -314,6 +307,10 @@ public class CheckoutPage extends BasePage {
         return awesomeChipsProduct;
     }
 
+    public By getAwesomeChipsProductLocator() {
+        return locatorOf("awesomeChipsProduct");
+    }
+
     @FindBy(css = ".svg-inline--fa.fa-heart-broken.fa-w-16.fa-2x ")
     private WebElement brokenHeartIcon;
 
@@ -367,6 +364,27 @@ public class CheckoutPage extends BasePage {
         clickShoppingCartIcon();
     }
 
+    // Ends up like addAwesomeChipsToCart() (chips in the cart, cart page open), but restores a recorded
+    // state seed when there is one. For tests that only need the product in the cart as a precondition.
+    public void seedAwesomeChipsInCart() {
+        StateSeeds.apply(driver, "awesome-chips-in-cart", this::addAwesomeChipsToCart, getAwesomeChipsProductLocator());
+    }
+
+    // Chips in the cart and the checkout form open, the common start of the checkout form validation tests.
+    // Adding the chips runs once per worker thread, the following tests fork from the cart page of its checkpoint.
+    // Every test checks the chips are in the restored cart before it goes on to the checkout form.
+    public void forkAtCheckoutForm() {
+        Checkpoints.fork(driver, "cart-with-awesome-chips", this::addAwesomeChipsToCart, getAwesomeChipsProductLocator());
+        assertPresent(getAwesomeChipsProductLocator(), "'Awesome Granite Chips' is not in the shopping cart.");
+        ExtentTestNGITestListener.log(Status.PASS, "Product found in the shopping cart: Awesome Granite Chips");
+        clickCheckoutButton();
+    }
+
+    // Ends up like addProductToWishlist() (chips in the wishlist, product page open), seeded when possible.
+    public void seedAwesomeChipsInWishlist() {
+        StateSeeds.apply(driver, "awesome-chips-in-wishlist", this::addProductToWishlist, locatorOf("shoppingCartBadge"));
+    }
+
     @FindBy(xpath = "(//td[@class='amount'])[1]")
     private WebElement itemPrice;
 
@@ -435,6 +453,11 @@ public class CheckoutPage extends BasePage {
         return displayedErrors;
     }
 
+    // Texts of all displayed validation errors, read with a single script call.
+    public List<String> getDisplayedErrorTexts() {
+        return readTexts(By.cssSelector(".error")).get(0);
+    }
+
     public double productPriceShirt() {
         String priceShirtValue = productPriceShirt.getText();
         String cleanShirtValue = priceShirtValue.replace("$", "");
@@ -453,7 +476,7 @@ public class CheckoutPage extends BasePage {
         setPasswordField("choochoo");
         clickLoginBtn();
         assertEquals(getUserLoggedIn().getText(), "dino");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user Dino is logged in.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user Dino is logged in.");
     }
 
 }
\ No newline at end of file
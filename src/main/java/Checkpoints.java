@@ -0,0 +1,67 @@
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lets tests that share a long setup prefix fork from a snapshot taken after it, instead of all repeating it.
+// The first test of a worker thread that reaches fork("name", ...) runs the prefix and captures cookies,
+// storage and route as a BrowserState; the following tests of that worker restore it with one reload.
+// Unlike StateSeeds, checkpoints only live in memory for the current run.
+// A checkpoint that cannot be restored (the shop keeps that state in memory only) is dropped
+// for all workers, and the prefix runs in every test again.
+public final class Checkpoints {
+
+    // Checkpoints can be switched off with -Dcheckpoints=false, so every test runs its full prefix.
+    private static final boolean ENABLED = TestConfig.getBoolean("checkpoints", true);
+
+    private static final Duration VERIFY_TIMEOUT = Duration.ofMillis(TestConfig.getInt("checkpoints.verify-timeout-ms", 3000));
+
+    // Checkpoints of the current worker thread.
+    private static final ThreadLocal<Map<String, BrowserState>> CHECKPOINTS = ThreadLocal.withInitial(HashMap::new);
+
+    // Checkpoints that turned out not to work in this run, shared by all workers.
+    private static final Set<String> UNUSABLE = ConcurrentHashMap.newKeySet();
+
+    private Checkpoints() {
+    }
+
+    // Brings the session to the end of the prefix: restored from this worker's checkpoint when there is one,
+    // otherwise by running the prefix and capturing it. 'proof' locates an element only displayed at that point.
+    public static void fork(WebDriver driver, String name, Runnable prefix, By proof) {
+        if (!ENABLED || UNUSABLE.contains(name)) {
+            prefix.run();
+            return;
+        }
+
+        BrowserState checkpoint = CHECKPOINTS.get().get(name);
+        if (checkpoint != null) {
+            if (checkpoint.restore(driver, proof, VERIFY_TIMEOUT)) {
+                ExtentTestNGITestListener.log(Status.INFO, "Forked from checkpoint '" + name + "'.");
+                return;
+            }
+            UNUSABLE.add(name);
+            CHECKPOINTS.get().remove(name);
+            System.out.println("Checkpoint '" + name + "' could not be restored, running its prefix in every test.");
+        }
+
+        prefix.run();
+        try {
+            new DomWait(driver, Duration.ofSeconds(10)).untilVisible(proof);
+        } catch (DomWait.ConditionTimeoutException e) {
+            // The prefix did not get where it should; leave the failure to the test's own assertions.
+            return;
+        }
+        BrowserState state = BrowserState.capture(driver);
+        if (state.isEmpty()) {
+            UNUSABLE.add(name);
+            System.out.println("Checkpoint '" + name + "' cannot be captured, the shop keeps this state in memory only.");
+            return;
+        }
+        CHECKPOINTS.get().put(name, state);
+    }
+}
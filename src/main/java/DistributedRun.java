@@ -0,0 +1,385 @@
+import org.testng.annotations.Test;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Runs the suite on several worker JVMs at once, without a Selenium Grid.
+//
+// The coordinator reads the test methods of testng.xml and hands them out to TestWorker JVMs over a socket,
+// one test at a time. It starts -Ddist.workers local workers (default: the thread count of a parallel run);
+// more can join from other machines while it runs (-Ddist.bind=0.0.0.0 and a fixed -Ddist.port).
+// Every worker gets its share of the tests up front, longest first as far as TestHistory knows them.
+// A worker that runs out takes the shortest test left of the worker with the most work left, so workers
+// finish close together. Workers send back every finished test as it is recorded; the coordinator adds it to
+// the report of ExtentTestNGITestListener, which ends up with the whole run tagged by worker.
+// A test whose worker dies is given to the next worker asking for one, and fails if that worker dies too.
+//
+// Usage: java DistributedRun [workers]   or   mvn -Pdistributed test-compile exec:exec -Ddist.args="-Dbrowser=firefox ..."
+// The workers are started with the -D settings of the coordinator and its environment, and write their own
+// logs and reports to <report.dir>/workers. Under Maven the coordinator is a JVM of its own, so settings
+// for the run go into -Ddist.args; other -D options of mvn do not reach it. Exits with 1 when a test failed.
+public final class DistributedRun {
+
+    // Protocol, one line per message. Worker: HELLO <name>, NEXT, RESULT <TestRecord JSON>. Coordinator: RUN <test>.
+    // The coordinator closes the connection when there is no more work.
+    static final String HELLO = "HELLO";
+    static final String NEXT = "NEXT";
+    static final String RESULT = "RESULT";
+    static final String RUN = "RUN";
+
+    private static final Path WORKER_DIR = Paths.get(TestConfig.get("report.dir", ".")).resolve("workers");
+
+    // Tests not handed out yet, per worker, longest first.
+    private final Map<String, Deque<String>> queues = new LinkedHashMap<>();
+    // Tests of workers that died while running them, handed out before any other test.
+    private final Deque<String> retries = new ArrayDeque<>();
+    private final Map<String, Long> estimates;
+    // Tests handed out but not finished, per worker.
+    private final Map<String, String> running = new LinkedHashMap<>();
+    // Workers that sent a result for the test they are running; it is not run again should the worker die now.
+    private final Set<String> reported = new HashSet<>();
+    private final Set<String> retried = new HashSet<>();
+    private final Set<String> failed = new LinkedHashSet<>();
+    private final int workers;
+    private int unfinished;
+    private int connected;
+
+    // Where finished tests go, with the category to file them under.
+    BiConsumer<TestRecord, String> report = ExtentTestNGITestListener::addRecord;
+
+    // Plans the tests, given with their expected milliseconds, on the local workers.
+    DistributedRun(Map<String, Long> estimates, int workers) {
+        this.workers = workers;
+        this.estimates = new LinkedHashMap<>(estimates);
+
+        List<String> longestFirst = new ArrayList<>(estimates.keySet());
+        longestFirst.sort(Comparator.comparingLong(estimates::get).reversed());
+        long[] load = new long[workers];
+        for (int i = 0; i < workers; i++) {
+            queues.put(localName(i), new ArrayDeque<>());
+        }
+        for (String test : longestFirst) {
+            int lightest = 0;
+            for (int i = 1; i < workers; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            queues.get(localName(lightest)).addLast(test);
+            load[lightest] += estimates.get(test);
+        }
+        unfinished = estimates.size();
+    }
+
+    // Expected milliseconds per test from TestHistory; tests without history count as the average one.
+    static Map<String, Long> estimates(List<String> tests) {
+        Map<String, TestHistory.Entry> history = TestHistory.history();
+        long average = Math.round(history.values().stream().mapToLong(TestHistory.Entry::getMillis).average().orElse(1000));
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        for (String test : tests) {
+            TestHistory.Entry entry = history.get(test);
+            estimates.put(test, entry == null ? average : entry.getMillis());
+        }
+        return estimates;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : TestConfig.getInt("dist.workers", ParallelSuiteListener.threadCount());
+        List<String> tests = testsOf(Paths.get(TestConfig.get("dist.suite", "testng.xml")));
+        if (tests.isEmpty()) {
+            System.out.println("No tests to run.");
+            return;
+        }
+        boolean passed = new DistributedRun(estimates(tests), Math.max(1, workers)).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws IOException, InterruptedException {
+        Files.createDirectories(WORKER_DIR);
+        InetAddress bind = InetAddress.getByName(TestConfig.get("dist.bind", "127.0.0.1"));
+        long started = System.currentTimeMillis();
+        try (ServerSocket server = new ServerSocket(TestConfig.getInt("dist.port", 0), 50, bind)) {
+            Thread acceptor = new Thread(() -> accept(server), "dist-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            String address = "127.0.0.1:" + server.getLocalPort();
+            System.out.println("Distributing " + unfinished + " tests on " + workers + " local workers, coordinator at "
+                    + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort() + ".");
+            List<Process> processes = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                processes.add(startWorker(address, localName(i)));
+            }
+
+            synchronized (this) {
+                // Done when every test finished, or when no worker is left to finish them.
+                while (unfinished > 0 && (connected > 0 || processes.stream().anyMatch(Process::isAlive))) {
+                    wait(1000);
+                }
+            }
+            for (Process process : processes) {
+                if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+
+        synchronized (this) {
+            for (String test : retries) {
+                lost(test, "coordinator", "Not run again: no worker was left", System.currentTimeMillis());
+            }
+            for (Deque<String> queue : queues.values()) {
+                for (String test : queue) {
+                    lost(test, "coordinator", "Not run: no worker was left", System.currentTimeMillis());
+                }
+            }
+        }
+        ExtentTestNGITestListener.writeReport();
+        System.out.printf("Distributed run finished in %.1f s, %d failed. Report: %s%n",
+                (System.currentTimeMillis() - started) / 1000.0, failed.size(), ExtentTestNGITestListener.getResultsFile());
+        return failed.isEmpty();
+    }
+
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serve(socket), "dist-worker");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.out.println("Could not accept a worker: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String worker = null;
+        long since = System.currentTimeMillis();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(HELLO + " ")) {
+                    worker = line.substring(HELLO.length() + 1);
+                    joined(worker);
+                } else if (line.startsWith(RESULT + " ") && worker != null) {
+                    result(worker, TestRecord.fromJson(line.substring(RESULT.length() + 1)));
+                } else if (line.equals(NEXT) && worker != null) {
+                    String test = next(worker);
+                    if (test == null) {
+                        break;
+                    }
+                    since = System.currentTimeMillis();
+                    out.println(RUN + " " + test);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Lost worker " + worker + ": " + e.getMessage());
+        } finally {
+            if (worker != null) {
+                left(worker, since);
+            }
+        }
+    }
+
+    synchronized void joined(String worker) {
+        queues.computeIfAbsent(worker, name -> new ArrayDeque<>());
+        connected++;
+        System.out.println("Worker " + worker + " joined.");
+    }
+
+    // A test of the worker finished, or one invocation of a data-driven one.
+    void result(String worker, TestRecord record) {
+        synchronized (this) {
+            if (running.containsKey(worker)) {
+                reported.add(worker);
+            }
+            if ("fail".equals(record.getStatus())) {
+                failed.add(record.getMethod());
+            }
+        }
+        report.accept(record, "worker " + worker);
+    }
+
+    // Finishes the test the worker was running and gives it the next one: a test to run again, else its own
+    // longest, or else the shortest of the worker with the most work left. Null when there is nothing left.
+    synchronized String next(String worker) {
+        reported.remove(worker);
+        if (running.remove(worker) != null) {
+            unfinished--;
+            notifyAll();
+        }
+        String test = retries.pollFirst();
+        if (test == null) {
+            test = queues.get(worker).pollFirst();
+        }
+        if (test == null) {
+            Deque<String> victim = null;
+            long most = 0;
+            for (Deque<String> queue : queues.values()) {
+                long work = queue.stream().mapToLong(estimates::get).sum();
+                if (work > most) {
+                    most = work;
+                    victim = queue;
+                }
+            }
+            test = victim == null ? null : victim.pollLast();
+        }
+        if (test != null) {
+            running.put(worker, test);
+        }
+        return test;
+    }
+
+    // A worker went away. Its test goes to another worker, once, unless its result already came in.
+    // Its own queue is left for the others to take.
+    synchronized void left(String worker, long since) {
+        connected--;
+        String test = running.remove(worker);
+        if (test != null) {
+            if (reported.remove(worker)) {
+                unfinished--;
+            } else if (retried.add(test)) {
+                System.out.println("Worker " + worker + " left while running " + test + ", running it again elsewhere.");
+                retries.addLast(test);
+            } else {
+                lost(test, worker, "Failed: the worker running this test stopped, twice", since);
+                unfinished--;
+            }
+        }
+        notifyAll();
+    }
+
+    // True when every test has finished, passed or failed.
+    synchronized boolean isFinished() {
+        return unfinished == 0;
+    }
+
+    synchronized Set<String> failedTests() {
+        return new LinkedHashSet<>(failed);
+    }
+
+    private void lost(String test, String worker, String details, long since) {
+        failed.add(test);
+        report.accept(TestRecord.failed(test, worker, details, since, System.currentTimeMillis()), "worker " + worker);
+    }
+
+    private static String localName(int index) {
+        return "local-" + (index + 1);
+    }
+
+    // Starts a worker JVM with the class path and -D settings of this one; its output goes to a log file.
+    private static Process startWorker(String coordinator, String name) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D") || argument.startsWith("-Xm")) {
+                command.add(argument);
+            }
+        }
+        command.addAll(List.of(TestConfig.get("dist.worker.jvm-args", "").split("\\s+")));
+        command.removeIf(String::isEmpty);
+        // Workers keep their own report files out of the way, and never filter the tests they are given.
+        // Their report is written after every test, so they use the light streaming one.
+        command.add("-Dreport.dir=" + WORKER_DIR);
+        command.add("-Dreport.shard=" + name);
+        command.add("-Dreport.streaming=true");
+        command.add("-Drerun=none");
+        command.add("-Dschedule.fail-fast=false");
+        command.add("-cp");
+        command.add(classPath());
+        command.add(TestWorker.class.getName());
+        command.add(coordinator);
+        command.add(name);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORKER_DIR.resolve(name + ".log").toFile())
+                .start();
+    }
+
+    // Under 'mvn exec:java' the project is loaded by its own class loader, not from java.class.path.
+    private static String classPath() {
+        ClassLoader loader = DistributedRun.class.getClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    entries.add(Paths.get(url.toURI()).toString());
+                } catch (Exception e) {
+                    entries.add(url.getPath());
+                }
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    // Test methods of the classes in the suite file, as Class.method in the order of the file.
+    // TestNG 7.8 marks its public Parser deprecated, but it is the parser TestNG offers outside its internal package.
+    @SuppressWarnings("deprecation")
+    static List<String> testsOf(Path suiteFile) throws IOException {
+        List<String> tests = new ArrayList<>();
+        for (XmlSuite suite : new Parser(suiteFile.toString()).parse()) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    Class<?> type = xmlClass.getSupportClass();
+                    Set<String> included = new HashSet<>();
+                    xmlClass.getIncludedMethods().forEach(include -> included.add(include.getName()));
+                    List<Method> methods = new ArrayList<>();
+                    for (Method method : type.getMethods()) {
+                        Test annotation = method.getAnnotation(Test.class);
+                        if (annotation != null && annotation.enabled() && !Modifier.isStatic(method.getModifiers())
+                                && (included.isEmpty() || included.contains(method.getName()))
+                                && !xmlClass.getExcludedMethods().contains(method.getName())) {
+                            methods.add(method);
+                        }
+                    }
+                    methods.sort(Comparator.comparing(Method::getName));
+                    for (Method method : methods) {
+                        String name = type.getName() + "." + method.getName();
+                        if (!tests.contains(name)) {
+                            tests.add(name);
+                        }
+                    }
+                }
+            }
+        }
+        return tests;
+    }
+}
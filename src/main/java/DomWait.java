@@ -0,0 +1,157 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Event driven replacement for polling WebDriverWaits.
+// A WebDriverWait asks the browser every 500 ms whether the condition holds, one round trip per poll.
+// DomWait sends a single asynchronous script instead: it installs a MutationObserver in the page,
+// re-checks the condition whenever the DOM changes and answers as soon as it holds or the timeout expires.
+// The browser is only talked to once per wait, no matter how long it takes.
+public class DomWait {
+
+    private static final String WAIT_SCRIPT = Locators.FIND_ALL_FUNCTION
+            + "var spec = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];"
+            + "function displayed(e) {"
+            + "  return !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)"
+            + "      && window.getComputedStyle(e).visibility !== 'hidden';"
+            + "}"
+            + "function text(e) { return (e.innerText || e.textContent || '').trim(); }"
+            + "function check() {"
+            + "  var all = findAll(spec.query);"
+            + "  var shown = all.filter(displayed);"
+            + "  var state = { count: all.length, displayed: shown.length, text: all.length ? text(all[0]) : null };"
+            + "  if (spec.kind === 'visible') { state.element = shown[0]; state.ok = shown.length > 0; }"
+            + "  if (spec.kind === 'clickable') {"
+            + "    state.element = shown.filter(function (e) { return !e.disabled; })[0]; state.ok = !!state.element;"
+            + "  }"
+            + "  if (spec.kind === 'text') { state.ok = state.text === spec.text; }"
+            + "  if (spec.kind === 'count') { state.ok = all.length === spec.count; }"
+            + "  if (spec.kind === 'none-displayed') { state.ok = shown.length === 0; }"
+            + "  return state;"
+            + "}"
+            + "var state = check();"
+            + "if (state.ok) { done(state); return; }"
+            + "var finished = false;"
+            + "function finish(result) {"
+            + "  if (finished) { return; }"
+            + "  finished = true; observer.disconnect(); clearTimeout(timer); clearInterval(fallback); done(result);"
+            + "}"
+            + "function recheck() { var s = check(); if (s.ok) { finish(s); } }"
+            + "var observer = new MutationObserver(recheck);"
+            + "observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });"
+            // Style changes without any DOM mutation (e.g. a finished CSS transition) are caught by a slow in-page fallback.
+            + "var fallback = setInterval(recheck, 100);"
+            + "var timer = setTimeout(function () { finish(check()); }, timeout);";
+
+    // Extra time given to the driver on top of the wait itself, so the browser always answers before the script timeout.
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLIS = 5_000;
+
+    // Script timeout already configured per browser session, so page objects do not repeat the round trip.
+    private static final Map<WebDriver, Long> SCRIPT_TIMEOUTS = new WeakHashMap<>();
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public DomWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+        ensureScriptTimeout(driver, timeout.toMillis() + SCRIPT_TIMEOUT_MARGIN_MILLIS);
+    }
+
+    // Waits until an element matching the locator is displayed and returns it.
+    public WebElement untilVisible(By locator) {
+        return (WebElement) await(spec("visible", locator), "an element matching " + locator + " to be visible").get("element");
+    }
+
+    // Waits until an element matching the locator is displayed and enabled, and returns it.
+    public WebElement untilClickable(By locator) {
+        return (WebElement) await(spec("clickable", locator), "an element matching " + locator + " to be clickable").get("element");
+    }
+
+    // Waits until the first element matching the locator has exactly this (trimmed) text.
+    public void untilTextEquals(By locator, String expected) {
+        Map<String, Object> spec = spec("text", locator);
+        spec.put("text", expected);
+        await(spec, "the text of " + locator + " to be '" + expected + "'");
+    }
+
+    // Waits until exactly this many elements match the locator.
+    public void untilCountEquals(By locator, int expected) {
+        Map<String, Object> spec = spec("count", locator);
+        spec.put("count", expected);
+        await(spec, expected + " elements matching " + locator);
+    }
+
+    // Waits until no element matching the locator is displayed any more.
+    public void untilNoneDisplayed(By locator) {
+        await(spec("none-displayed", locator), "no displayed element matching " + locator);
+    }
+
+    private static Map<String, Object> spec(String kind, By locator) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("kind", kind);
+        spec.put("query", Locators.toQuery(locator));
+        return spec;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> await(Map<String, Object> spec, String description) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            long remaining = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+            Map<String, Object> state;
+            try {
+                state = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT, spec, remaining);
+            } catch (WebDriverException e) {
+                // A navigation unloads the page under the script; start over on the new document while time is left.
+                if (remaining > 0 && e.getMessage() != null && e.getMessage().contains("unloaded")) {
+                    continue;
+                }
+                throw e;
+            }
+            if (Boolean.TRUE.equals(state.get("ok"))) {
+                return state;
+            }
+            throw new ConditionTimeoutException("Expected " + description + " within " + timeout.toMillis() + " ms, but "
+                    + state.get("count") + " matched, " + state.get("displayed") + " displayed"
+                    + (state.get("text") != null ? ", first text '" + state.get("text") + "'" : "") + ".");
+        }
+    }
+
+    // Only sends the script timeout to the browser when this session does not allow enough time yet.
+    private static void ensureScriptTimeout(WebDriver driver, long millis) {
+        synchronized (SCRIPT_TIMEOUTS) {
+            Long current = SCRIPT_TIMEOUTS.get(driver);
+            if (current == null || current < millis) {
+                driver.manage().timeouts().setScriptTimeout(millis, TimeUnit.MILLISECONDS);
+                SCRIPT_TIMEOUTS.put(driver, millis);
+            }
+        }
+    }
+
+    // Thrown when the condition did not hold in time. getReason() describes what the page looked like,
+    // without the build and system details Selenium appends to getMessage().
+    public static class ConditionTimeoutException extends TimeoutException {
+        private static final long serialVersionUID = 1L;
+
+        private final String reason;
+
+        public ConditionTimeoutException(String reason) {
+            super(reason);
+            this.reason = reason;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.FirefoxProfile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Builds new browser sessions for the tests.
+// Hooks (directly or through the DriverPool) is the only caller, so the browser setup lives in one place.
+public final class DriverFactory {
+
+    // Selenium's own properties for the driver binaries; setting one pins the driver and skips WebDriverManager.
+    private static final String CHROME_DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final String GECKO_DRIVER_PROPERTY = "webdriver.gecko.driver";
+
+    public static final List<String> SUPPORTED_BROWSERS = List.of("chrome", "firefox");
+
+    // Browser of the tests when no browser matrix is set: -Dbrowser=chrome|firefox.
+    public static final String DEFAULT_BROWSER = checkSupported(TestConfig.get("browser", "chrome").toLowerCase(Locale.ROOT));
+
+    // With -Dwebdriver.offline=true the binary is never looked up on the network, it must be
+    // pinned with -Dwebdriver.chrome.driver or listed in the manifest file.
+    private static final boolean OFFLINE = TestConfig.getBoolean("webdriver.offline", false);
+
+    // Properties file mapping a browser name to its driver binary, e.g. 'chrome=/opt/drivers/chromedriver'.
+    // Relative paths are resolved against the folder of the manifest.
+    private static final Path MANIFEST = Paths.get(TestConfig.get("webdriver.manifest", "drivers/manifest.properties"));
+
+    // Resolved driver binaries per browser name, so the lookup happens once per JVM
+    // and every later session only pays for a map read.
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+
+    private DriverFactory() {
+    }
+
+    // Launches a new browser of the default kind.
+    public static WebDriver createDriver() {
+        return createDriver(DEFAULT_BROWSER);
+    }
+
+    // Launches a new browser of the given kind with the options used by the whole suite.
+    public static WebDriver createDriver(String browser) {
+        WebDriver driver = checkSupported(browser).equals("firefox") ? createFirefox() : createChrome();
+
+        // Noting the processes of the new session, so they can be stopped at suite end should the quit fail.
+        SessionCloser.trackProcesses();
+
+        // With -Ddriver.latency=true every command of the session is timed.
+        return DriverLatency.ENABLED ? DriverLatency.instrument(driver) : driver;
+    }
+
+    public static String checkSupported(String browser) {
+        if (!SUPPORTED_BROWSERS.contains(browser)) {
+            throw new IllegalArgumentException("Unknown browser '" + browser + "', expected one of " + SUPPORTED_BROWSERS + ".");
+        }
+        return browser;
+    }
+
+    private static WebDriver createChrome() {
+
+        // The chromedriver binary is resolved only once per JVM, every later session reuses the same path.
+        ensureResolved("chrome", CHROME_DRIVER_PROPERTY);
+
+        ChromeOptions options = new ChromeOptions();
+
+        options.setExperimentalOption("useAutomationExtension", false);
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-search-engine-choice-screen");
+
+        // Sending every request through the asset proxy when one runs for this suite.
+        String proxy = Hooks.proxyAddress();
+        if (proxy != null) {
+            options.addArguments("--proxy-server=http://" + proxy);
+        }
+
+        boolean lean = isLeanProfile();
+        if (lean) {
+            applyLeanProfile(options);
+        } else if (!hasDisplay()) {
+            options.addArguments("--headless=new");
+            options.addArguments("--window-size=" + TestConfig.get("browser.window-size", "1920,1080"));
+        }
+
+        WebDriver driver = new ChromeDriver(options);
+
+        // Maximizing the browser window to ensure that all elements are visible and accessible during the test.
+        // The lean profile has no visible window, its viewport is fixed by --window-size instead.
+        if (!lean && hasDisplay()) {
+            driver.manage().window().maximize();
+        }
+        return driver;
+    }
+
+    // Firefox with the same setup as Chrome: proxy, and in the lean profile or without a display headless with
+    // a fixed window size and, with -Dbrowser.images=false, without pictures.
+    private static WebDriver createFirefox() {
+        ensureResolved("firefox", GECKO_DRIVER_PROPERTY);
+
+        FirefoxOptions options = new FirefoxOptions();
+        FirefoxProfile profile = new FirefoxProfile();
+
+        String proxy = Hooks.proxyAddress();
+        if (proxy != null) {
+            String host = proxy.substring(0, proxy.lastIndexOf(':'));
+            int port = Integer.parseInt(proxy.substring(proxy.lastIndexOf(':') + 1));
+            profile.setPreference("network.proxy.type", 1);
+            profile.setPreference("network.proxy.http", host);
+            profile.setPreference("network.proxy.http_port", port);
+            profile.setPreference("network.proxy.ssl", host);
+            profile.setPreference("network.proxy.ssl_port", port);
+            profile.setPreference("network.proxy.allow_hijacking_localhost", true);
+        }
+
+        boolean lean = isLeanProfile();
+        boolean headless = lean || !hasDisplay();
+        if (headless) {
+            String[] size = TestConfig.get("browser.window-size", "1920,1080").split(",");
+            options.addArguments("-headless", "--width=" + size[0].trim(), "--height=" + size[1].trim());
+        }
+        if (lean && !TestConfig.getBoolean("browser.images", true)) {
+            profile.setPreference("permissions.default.image", 2);
+        }
+        options.setProfile(profile);
+
+        WebDriver driver = new FirefoxDriver(options);
+        if (!headless) {
+            driver.manage().window().maximize();
+        }
+        return driver;
+    }
+
+    // Linux runners usually have no X or Wayland display; a headed browser cannot start there at all.
+    private static boolean hasDisplay() {
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("linux")) {
+            return true;
+        }
+        return System.getenv("DISPLAY") != null || System.getenv("WAYLAND_DISPLAY") != null;
+    }
+
+    // The browser profile is chosen with -Dbrowser.profile (or BROWSER_PROFILE):
+    // 'headed' (default) keeps the visible, maximized window used for local debugging,
+    // 'lean' runs headless with everything a test does not need turned off, so more browsers fit on one runner.
+    public static boolean isLeanProfile() {
+        String profile = TestConfig.get("browser.profile", "headed");
+        if (!profile.equalsIgnoreCase("lean") && !profile.equalsIgnoreCase("headed")) {
+            throw new IllegalArgumentException("Unknown browser.profile '" + profile + "', expected 'headed' or 'lean'.");
+        }
+        return profile.equalsIgnoreCase("lean");
+    }
+
+    private static void applyLeanProfile(ChromeOptions options) {
+        options.addArguments("--headless=new");
+        options.addArguments("--window-size=" + TestConfig.get("browser.window-size", "1920,1080"));
+        options.addArguments("--disable-gpu");
+        options.addArguments("--disable-extensions");
+
+        // Containers often mount a tiny /dev/shm (64 MB in Docker), which makes Chrome tabs crash.
+        // In that case Chrome is told to keep its shared memory files in /tmp instead.
+        if (hasSmallSharedMemory()) {
+            options.addArguments("--disable-dev-shm-usage");
+        }
+
+        // With -Dbrowser.images=false pictures are not downloaded nor decoded; the tests only look at text.
+        if (!TestConfig.getBoolean("browser.images", true)) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+    }
+
+    private static boolean hasSmallSharedMemory() {
+        Path shm = Paths.get("/dev/shm");
+        if (!Files.isDirectory(shm)) {
+            return false;
+        }
+        try {
+            return Files.getFileStore(shm).getTotalSpace() < 1024L * 1024 * 1024;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void ensureResolved(String browser, String driverProperty) {
+        String path = RESOLVED.computeIfAbsent(browser, name -> resolve(name, driverProperty));
+        System.setProperty(driverProperty, path);
+    }
+
+    private static String resolve(String browser, String driverProperty) {
+        String pinned = TestConfig.get(driverProperty, null);
+        if (pinned == null) {
+            pinned = readManifest().getProperty(browser);
+            if (pinned != null) {
+                pinned = MANIFEST.toAbsolutePath().getParent().resolve(pinned).toString();
+            }
+        }
+        if (pinned != null) {
+            if (!Files.isExecutable(Paths.get(pinned))) {
+                throw new IllegalStateException("The pinned " + browser + " driver '" + pinned + "' is missing or not executable.");
+            }
+            System.out.println("Using pinned " + browser + " driver " + pinned);
+            return pinned;
+        }
+
+        if (OFFLINE) {
+            throw new IllegalStateException("Offline mode is on but no " + browser + " driver is pinned. Set -D" + driverProperty
+                    + " or add '" + browser + "=<path>' to " + MANIFEST.toAbsolutePath());
+        }
+
+        WebDriverManager manager = WebDriverManager.getInstance(browser);
+        manager.setup();
+        String resolved = manager.getDownloadedDriverPath();
+        System.out.println("Resolved " + browser + " driver " + resolved);
+
+        // With -Dwebdriver.manifest.update=true the resolved path is written to the manifest,
+        // so a runner can be prepared once while online and then used with -Dwebdriver.offline=true.
+        if (TestConfig.getBoolean("webdriver.manifest.update", false)) {
+            updateManifest(browser, resolved);
+        }
+        return resolved;
+    }
+
+    private static Properties readManifest() {
+        Properties manifest = new Properties();
+        if (Files.isRegularFile(MANIFEST)) {
+            try (InputStream in = Files.newInputStream(MANIFEST)) {
+                manifest.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read the driver manifest " + MANIFEST.toAbsolutePath(), e);
+            }
+        }
+        return manifest;
+    }
+
+    private static synchronized void updateManifest(String browser, String driverPath) {
+        Properties manifest = readManifest();
+        manifest.setProperty(browser, driverPath);
+        try {
+            Path parent = MANIFEST.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            try (OutputStream out = Files.newOutputStream(MANIFEST)) {
+                manifest.store(out, "Driver binaries used when running with -Dwebdriver.offline=true");
+            }
+        } catch (IOException e) {
+            System.out.println("Could not update the driver manifest " + MANIFEST.toAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+}
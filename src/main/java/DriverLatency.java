@@ -0,0 +1,233 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+import org.openqa.selenium.support.events.EventFiringWebDriver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Opt-in latency instrumentation of every WebDriver command (-Ddriver.latency=true).
+// The driver is wrapped in an EventFiringWebDriver whose listener times findElement(s), click, sendKeys/clear,
+// getText, navigation and script calls, and remembers the page object method that issued each one
+// (e.g. CheckoutPage.clickCheckoutButton). At the end of the suite the histograms are printed,
+// attached to the Extent report and exported as CSV (-Ddriver.latency.csv, default latency.csv).
+public final class DriverLatency {
+
+    public static final boolean ENABLED = TestConfig.getBoolean("driver.latency", false);
+
+    private static final Path CSV = Paths.get(TestConfig.get("driver.latency.csv", "latency.csv"));
+
+    // How many page object methods the summary lists.
+    private static final int TOP_METHODS = 15;
+
+    // One histogram per command ("click") and per command and issuing method ("click CheckoutPage.clickCheckoutButton").
+    private static final Map<String, LatencyHistogram> BY_COMMAND = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> BY_METHOD = new ConcurrentHashMap<>();
+
+    private static final StackWalker STACK = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private DriverLatency() {
+    }
+
+    public static WebDriver instrument(WebDriver driver) {
+        return new EventFiringWebDriver(driver).register(new Listener());
+    }
+
+    private static void record(String command, String caller, long nanos) {
+        BY_COMMAND.computeIfAbsent(command, key -> new LatencyHistogram()).recordNanos(nanos);
+        BY_METHOD.computeIfAbsent(command + " " + caller, key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    // The page object method, or failing that the test method, the command was issued from.
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = STACK.walk(frames -> frames
+                .filter(f -> BasePage.class.isAssignableFrom(f.getDeclaringClass()) && f.getDeclaringClass() != BasePage.class)
+                .findFirst());
+        if (!frame.isPresent()) {
+            frame = STACK.walk(frames -> frames.filter(f -> Hooks.class.isAssignableFrom(f.getDeclaringClass())).findFirst());
+        }
+        return frame.map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName()).orElse("(framework)");
+    }
+
+    // Summary of all recorded commands: per command, per page class and the slowest page object methods.
+    public static String describe() {
+        StringBuilder text = new StringBuilder("WebDriver command latency (ms)\n");
+        text.append(String.format(Locale.ROOT, "%-48s %8s %10s %8s %8s %8s %8s %8s%n",
+                "command", "count", "total", "mean", "p50", "p90", "p99", "max"));
+        sorted(BY_COMMAND).forEach(entry -> text.append(row(entry.getKey(), entry.getValue())));
+
+        text.append("\nTime per page class (ms)\n");
+        Map<String, Double> perClass = BY_METHOD.entrySet().stream().collect(Collectors.groupingBy(
+                entry -> pageClass(entry.getKey()), Collectors.summingDouble(entry -> entry.getValue().getTotalMillis())));
+        perClass.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .forEach(entry -> text.append(String.format(Locale.ROOT, "%-48s %10.1f%n", entry.getKey(), entry.getValue())));
+
+        text.append("\nSlowest page object methods (ms)\n");
+        sorted(BY_METHOD).stream().limit(TOP_METHODS).forEach(entry -> text.append(row(entry.getKey(), entry.getValue())));
+        return text.toString();
+    }
+
+    // Writes one line per command and issuing method.
+    public static void exportCsv() throws IOException {
+        Path absolute = CSV.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(absolute, StandardCharsets.UTF_8)) {
+            out.write("command,caller,count,total_ms,mean_ms,p50_ms,p90_ms,p99_ms,max_ms");
+            out.newLine();
+            for (Map.Entry<String, LatencyHistogram> entry : sorted(BY_METHOD)) {
+                String[] key = entry.getKey().split(" ", 2);
+                LatencyHistogram histogram = entry.getValue();
+                out.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", key[0], key[1],
+                        histogram.getCount(), histogram.getTotalMillis(), histogram.getMeanMillis(),
+                        histogram.getPercentileMillis(50), histogram.getPercentileMillis(90),
+                        histogram.getPercentileMillis(99), histogram.getMaxMillis()));
+                out.newLine();
+            }
+        }
+    }
+
+    public static boolean hasSamples() {
+        return !BY_COMMAND.isEmpty();
+    }
+
+    public static Path getCsvPath() {
+        return CSV;
+    }
+
+    private static List<Map.Entry<String, LatencyHistogram>> sorted(Map<String, LatencyHistogram> histograms) {
+        return histograms.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getTotalMillis()).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static String row(String name, LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "%-48s %8d %10.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n", name,
+                histogram.getCount(), histogram.getTotalMillis(), histogram.getMeanMillis(),
+                histogram.getPercentileMillis(50), histogram.getPercentileMillis(90),
+                histogram.getPercentileMillis(99), histogram.getMaxMillis());
+    }
+
+    private static String pageClass(String commandAndCaller) {
+        String caller = commandAndCaller.substring(commandAndCaller.indexOf(' ') + 1);
+        int dot = caller.indexOf('.');
+        return dot < 0 ? caller : caller.substring(0, dot);
+    }
+
+    // Times the commands. Before and after callbacks of one command arrive on the same thread;
+    // a failing command gets onException instead of its after callback.
+    private static class Listener extends AbstractWebDriverEventListener {
+        private final ThreadLocal<Deque<Pending>> pending = ThreadLocal.withInitial(ArrayDeque::new);
+
+        private void start(String command) {
+            pending.get().push(new Pending(command, System.nanoTime()));
+        }
+
+        // Commands without instrumentation can fail as well; then nothing is pending and nothing is recorded.
+        private void stop() {
+            Pending command = pending.get().poll();
+            if (command != null) {
+                record(command.command, caller(), System.nanoTime() - command.startNanos);
+            }
+        }
+
+        @Override
+        public void beforeFindBy(By by, WebElement element, WebDriver driver) {
+            start("findElement");
+        }
+
+        @Override
+        public void afterFindBy(By by, WebElement element, WebDriver driver) {
+            stop();
+        }
+
+        @Override
+        public void beforeClickOn(WebElement element, WebDriver driver) {
+            start("click");
+        }
+
+        @Override
+        public void afterClickOn(WebElement element, WebDriver driver) {
+            stop();
+        }
+
+        @Override
+        public void beforeChangeValueOf(WebElement element, WebDriver driver, CharSequence[] keysToSend) {
+            start(keysToSend == null ? "clear" : "sendKeys");
+        }
+
+        @Override
+        public void afterChangeValueOf(WebElement element, WebDriver driver, CharSequence[] keysToSend) {
+            stop();
+        }
+
+        @Override
+        public void beforeGetText(WebElement element, WebDriver driver) {
+            start("getText");
+        }
+
+        @Override
+        public void afterGetText(WebElement element, WebDriver driver, String text) {
+            stop();
+        }
+
+        @Override
+        public void beforeNavigateTo(String url, WebDriver driver) {
+            start("get");
+        }
+
+        @Override
+        public void afterNavigateTo(String url, WebDriver driver) {
+            stop();
+        }
+
+        @Override
+        public void beforeNavigateRefresh(WebDriver driver) {
+            start("refresh");
+        }
+
+        @Override
+        public void afterNavigateRefresh(WebDriver driver) {
+            stop();
+        }
+
+        @Override
+        public void beforeScript(String script, WebDriver driver) {
+            start("script");
+        }
+
+        @Override
+        public void afterScript(String script, WebDriver driver) {
+            stop();
+        }
+
+        @Override
+        public void onException(Throwable throwable, WebDriver driver) {
+            stop();
+        }
+    }
+
+    private static class Pending {
+        private final String command;
+        private final long startNanos;
+
+        private Pending(String command, long startNanos) {
+            this.command = command;
+            this.startNanos = startNanos;
+        }
+    }
+}
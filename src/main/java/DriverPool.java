@@ -0,0 +1,109 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Opt-in pool of warm browser sessions (-Ddriver.pool=true).
+// Instead of launching and quitting Chrome around every test method, each worker thread keeps
+// its idle sessions in its own deque, borrows one before a test and gives it back afterwards.
+// A returned session is reset to a clean state; it is recycled (quit) once it reached the
+// configured number of uses or when the reset fails, which means the browser is in an unknown state.
+// Every browser of a browser matrix has its own idle sessions, so a Firefox test never gets a Chrome session.
+public final class DriverPool {
+
+    // Turns the pooled mode on; the default stays one fresh browser per test method.
+    public static final boolean ENABLED = TestConfig.getBoolean("driver.pool", false);
+
+    // How many idle sessions a single worker thread keeps warm.
+    private static final int IDLE_PER_WORKER = TestConfig.getInt("driver.pool.size", 1);
+
+    // After this many tests a session is quit and replaced with a fresh one.
+    private static final int MAX_USES = TestConfig.getInt("driver.pool.max-uses", 10);
+
+    // Idle sessions of the current worker thread, per browser.
+    private static final ThreadLocal<Map<String, Deque<WebDriver>>> IDLE = ThreadLocal.withInitial(HashMap::new);
+
+    // Every session created by the pool with its use counter, so they can all be quit at suite end.
+    private static final Map<WebDriver, Integer> USES = new ConcurrentHashMap<>();
+
+    // The browser of every session created by the pool.
+    private static final Map<WebDriver, String> BROWSERS = new ConcurrentHashMap<>();
+
+    private DriverPool() {
+    }
+
+    // Hands out an idle session of the current worker or launches a new one.
+    public static WebDriver borrow() {
+        return borrow(DriverFactory.DEFAULT_BROWSER);
+    }
+
+    // Hands out an idle session of the given browser of the current worker or launches a new one.
+    public static WebDriver borrow(String browser) {
+        WebDriver driver = idle(browser).pollFirst();
+        if (driver == null) {
+            driver = SessionLauncher.take(browser);
+            USES.put(driver, 0);
+            BROWSERS.put(driver, browser);
+        }
+        USES.merge(driver, 1, Integer::sum);
+        return driver;
+    }
+
+    // Takes a session back after a test. 'reusable' is false when the caller already knows
+    // the session is broken, in which case it is quit right away.
+    public static void release(WebDriver driver, boolean reusable) {
+        if (driver == null) {
+            return;
+        }
+        Integer uses = USES.get(driver);
+        String browser = BROWSERS.get(driver);
+        if (!reusable || uses == null || browser == null || uses >= MAX_USES || idle(browser).size() >= IDLE_PER_WORKER) {
+            discard(driver);
+            return;
+        }
+
+        try {
+            reset(driver);
+        } catch (RuntimeException e) {
+            System.out.println("Recycling browser session after failed reset: " + e.getMessage());
+            discard(driver);
+            return;
+        }
+        idle(browser).addFirst(driver);
+    }
+
+    private static Deque<WebDriver> idle(String browser) {
+        return IDLE.get().computeIfAbsent(browser, name -> new ArrayDeque<>());
+    }
+
+    // Quits every session the pool ever handed out and that is still alive.
+    public static void shutdown() {
+        for (WebDriver driver : USES.keySet()) {
+            discard(driver);
+        }
+    }
+
+    // Brings a used session back to the state of a freshly launched browser.
+    // Hooks.setUp opens the home page for the next test, so the reset itself does not load it.
+    private static void reset(WebDriver driver) {
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+
+        // The shop keeps its cart, wishlist and login in memory as well, so use its own reset button.
+        new LoginPage(driver).clickResetButton();
+    }
+
+    private static void discard(WebDriver driver) {
+        USES.remove(driver);
+        BROWSERS.remove(driver);
+        try {
+            SessionCloser.quit(driver);
+        } catch (RuntimeException e) {
+            System.out.println("Browser session could not be quit cleanly: " + e.getMessage());
+        }
+    }
+}
@@ -1,17 +1,98 @@
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
 public class ExtentTestNGITestListener implements ITestListener {
     private static ExtentReports extent = new ExtentReports();
     private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
 
+    // Where the report goes (-Dreport.dir) and which shard of a split run this JVM is (-Dreport.shard).
+    // Shards write to their own files, so forked JVMs and CI machines never overwrite each other;
+    // ReportMerger combines their result files afterwards. Forked surefire JVMs (-DforkCount=2 and more)
+    // are shards of their own by default, 'fork-1', 'fork-2' and so on.
+    private static final Path REPORT_DIR = Paths.get(TestConfig.get("report.dir", "."));
+    private static final String SHARD = TestConfig.get("report.shard", forkShard());
+    private static final Path REPORT = REPORT_DIR.resolve(SHARD == null ? "extentReports.html" : "extentReports-" + SHARD + ".html");
+
+    // Every finished test is appended to this file as one TestRecord JSON line.
+    private static final Path RESULTS = REPORT_DIR.resolve(SHARD == null ? "results.jsonl" : "results-" + SHARD + ".jsonl");
+
+    // With -Dreport.streaming=true finished tests are dropped from the in-memory report and appended to a
+    // simpler HTML page instead (see StreamingReportWriter). Memory then stays flat however many tests run.
+    private static final boolean STREAMING = TestConfig.getBoolean("report.streaming", false);
+
+    // Open results file, guarded by 'extent'.
+    private static BufferedWriter results;
+
+    // Also receives every recorded test, as a worker JVM of a distributed run sends them on; guarded by 'extent'.
+    private static Consumer<TestRecord> recordSink;
+
+    // Report page of a streaming run, opened with the results file; guarded by 'extent'.
+    private static StreamingReportWriter streamingReport;
+
+    // Title and text of the run-wide summaries of a streaming run, guarded by 'extent'.
+    private static final List<String[]> SUMMARIES = new ArrayList<>();
+
+    // Upper bound of log events waiting for the report writer.
+    private static final int QUEUE_CAPACITY = TestConfig.getInt("report.log-queue", 10_000);
+
+    // Log events of all workers, in the order they were logged. Adding never takes a lock.
+    private static final Queue<LogEvent> EVENTS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+
+    // Background writer moving queued events into the report model. It sleeps while there is nothing to write
+    // and is woken by every new event, so an idle run never takes the 'extent' lock.
+    private static final Thread WRITER = new Thread(() -> {
+        while (true) {
+            if (!EVENTS.isEmpty()) {
+                drain();
+            }
+            LockSupport.park();
+        }
+    }, "extent-log-writer");
+
     static {
-        extent.attachReporter(new ExtentSparkReporter("extentReports.html"));
+        try {
+            Files.createDirectories(REPORT_DIR);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create the report directory " + REPORT_DIR, e);
+        }
+        if (!STREAMING) {
+            extent.attachReporter(new ExtentSparkReporter(REPORT.toString()));
+        }
+        WRITER.setDaemon(true);
+        WRITER.start();
+    }
+
+    // Shard name of a surefire fork, from the report.fork and report.forks properties the pom passes on.
+    // Null in a single JVM, which keeps the plain file names.
+    private static String forkShard() {
+        String forks = TestConfig.get("report.forks", "1");
+        String fork = TestConfig.get("report.fork", null);
+        if (fork == null || !fork.matches("\\d+") || forks.equals("0") || forks.equals("1")) {
+            return null;
+        }
+        return "fork-" + fork;
     }
 
     // Provide access to the current test instance
@@ -19,6 +100,133 @@ public class ExtentTestNGITestListener implements ITestListener {
         return test.get();
     }
 
+    // Log a step of the current test. The event only goes onto a queue, the test thread does not wait
+    // for the shared, not thread-safe report. When the queue is full the caller writes the backlog itself,
+    // so memory stays bounded and events keep their order.
+    public static void log(Status status, String details) {
+        ExtentTest current = getTest();
+        if (current == null) {
+            return;
+        }
+        enqueue(new LogEvent(current, status, details, System.currentTimeMillis(), null));
+    }
+
+    // Marks the current test as finished; it is recorded once its steps are written.
+    // The thread lets go of it, so nothing of a later test can end up in it.
+    private static void finish(ITestResult result) {
+        ExtentTest current = getTest();
+        if (current != null) {
+            enqueue(new LogEvent(current, null, null, System.currentTimeMillis(), result));
+            test.remove();
+        }
+    }
+
+    private static void enqueue(LogEvent event) {
+        while (QUEUED.incrementAndGet() > QUEUE_CAPACITY) {
+            QUEUED.decrementAndGet();
+            drain();
+        }
+        EVENTS.add(event);
+        LockSupport.unpark(WRITER);
+    }
+
+    // Writes all queued events into the report model. Runs on the writer thread, and before every flush.
+    private static void drain() {
+        synchronized (extent) {
+            LogEvent event;
+            while ((event = EVENTS.poll()) != null) {
+                QUEUED.decrementAndGet();
+                if (event.status == null) {
+                    record(event.test, event.result);
+                    continue;
+                }
+                event.test.log(event.status, event.details);
+                // Keep the time the step happened at, not the time it was written.
+                List<Log> logs = event.test.getModel().getLogs();
+                logs.get(logs.size() - 1).setTimestamp(new Date(event.time));
+            }
+        }
+    }
+
+    // Appends the test to the results file; a streaming run also moves it from the report model to its page.
+    // Called with 'extent' held.
+    private static void record(ExtentTest finished, ITestResult result) {
+        try {
+            if (results == null) {
+                openResults();
+            }
+            TestRecord record = TestRecord.of(finished, SHARD, TestHistory.key(result.getMethod(), result.getTestContext()),
+                    FailedTestRerun.parameterKey(result.getParameters()));
+            results.write(record.toJson());
+            results.newLine();
+            if (recordSink != null) {
+                recordSink.accept(record);
+            }
+            if (STREAMING) {
+                streamingReport.add(record);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not record test '" + finished.getModel().getName() + "' in " + RESULTS + ": " + e.getMessage());
+            return;
+        }
+        if (STREAMING) {
+            extent.removeTest(finished);
+        }
+    }
+
+    // Adds a test that ran in another JVM, such as a worker of a distributed run, to the results and the report.
+    public static void addRecord(TestRecord record, String category) {
+        synchronized (extent) {
+            try {
+                if (results == null) {
+                    openResults();
+                }
+                results.write(record.toJson());
+                results.newLine();
+                if (STREAMING) {
+                    streamingReport.add(record);
+                }
+            } catch (IOException e) {
+                System.out.println("Could not record test '" + record.getName() + "' in " + RESULTS + ": " + e.getMessage());
+                return;
+            }
+            if (!STREAMING) {
+                ReportMerger.add(extent, record, category);
+            }
+        }
+    }
+
+    // Hands every test recorded from now on to the sink as well, or stops doing so with null.
+    public static void setRecordSink(Consumer<TestRecord> sink) {
+        synchronized (extent) {
+            recordSink = sink;
+        }
+    }
+
+    // Starts the results file. A rerun of the failed tests first copies over what passed last time,
+    // into the file and into the report, so both cover the whole suite again. Called with 'extent' held.
+    private static void openResults() throws IOException {
+        List<TestRecord> carriedOver = FailedTestRerun.carriedOver();
+        results = Files.newBufferedWriter(RESULTS, StandardCharsets.UTF_8);
+        if (STREAMING) {
+            streamingReport = new StreamingReportWriter(REPORT);
+        }
+        for (TestRecord record : carriedOver) {
+            results.write(record.toJson());
+            results.newLine();
+            if (STREAMING) {
+                streamingReport.add(record);
+            } else {
+                ReportMerger.add(extent, record, "previous run");
+            }
+        }
+    }
+
+    // The results file of this JVM.
+    public static Path getResultsFile() {
+        return RESULTS;
+    }
+
     @Override
     public void onStart(ITestContext context) {
         System.out.println("Start of Execution(TEST): " + context.getName());
@@ -27,44 +235,131 @@ public class ExtentTestNGITestListener implements ITestListener {
     @Override
     public void onFinish(ITestContext context) {
         System.out.println("End of Execution(TEST): " + context.getName());
-        extent.flush();
+        writeReport();
+        TestHistory.save();
+    }
+
+    // Adds a run-wide section such as the WebDriver latency tables to the report and writes it again.
+    // Summaries are not tests: they do not count in the totals and do not go into the results file.
+    // The regular report shows them in the System/Environment table of its dashboard. Its template collapses
+    // runs of spaces, so they are written as non-breaking spaces to keep the columns lined up.
+    public static void addSummary(String title, String text) {
+        synchronized (extent) {
+            if (STREAMING) {
+                SUMMARIES.add(new String[]{title, text});
+            } else {
+                extent.setSystemInfo(title, "<pre>" + escapeHtml(text).replace(" ", "&nbsp;") + "</pre>");
+            }
+        }
+        writeReport();
+    }
+
+    // Writes the results file and the report with everything recorded so far.
+    public static void writeReport() {
+        drain();
+        synchronized (extent) {
+            try {
+                if (results != null) {
+                    results.flush();
+                }
+                if (!STREAMING) {
+                    extent.flush();
+                } else if (streamingReport != null) {
+                    streamingReport.writeFooter(SUMMARIES);
+                }
+            } catch (IOException e) {
+                System.out.println("Could not write the report to " + REPORT_DIR + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
 
     @Override
     public void onTestStart(ITestResult result) {
         System.out.println("Test Started->" + result.getName());
-        test.set(extent.createTest(result.getMethod().getMethodName(), result.getMethod().getDescription()));
+        synchronized (extent) {
+            String name = result.getMethod().getMethodName();
+            if (BrowserMatrix.isActive()) {
+                name += " [" + BrowserMatrix.browserOf(result.getTestContext()) + "]";
+            }
+            test.set(extent.createTest(name, result.getMethod().getDescription()));
+            // No categories when streaming: removeTest does not take a test out of its categories,
+            // so every finished test would stay in memory through them. The browser is in the name anyway.
+            if (!STREAMING) {
+                if (FailedTestRerun.ACTIVE) {
+                    getTest().assignCategory("rerun");
+                }
+                if (BrowserMatrix.isActive()) {
+                    getTest().assignCategory(BrowserMatrix.browserOf(result.getTestContext()));
+                }
+            }
+        }
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        getTest().log(Status.PASS, "Test passed");
+        log(Status.PASS, "Test passed");
+        finish(result);
+        TestHistory.record(result);
+        BrowserMatrix.record(result);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         Throwable throwable = result.getThrowable();
         if (throwable != null) {
-            getTest().log(Status.FAIL, throwable.getMessage());
+            log(Status.FAIL, throwable.getMessage());
         }
         else {
-            getTest().log(Status.FAIL, "Test Failed");
+            log(Status.FAIL, "Test Failed");
         }
+        finish(result);
+        TestHistory.record(result);
+        BrowserMatrix.record(result);
+        TestScheduler.testFailed(result);
 
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        getTest().log(Status.SKIP, "Test Skipped");
+        // A test skipped in its @BeforeMethod, as after a fail-fast stop, never started.
+        if (getTest() == null) {
+            onTestStart(result);
+        }
+        log(Status.SKIP, "Test Skipped");
+        finish(result);
     }
 
     @Override
     public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
-        getTest().log(Status.FAIL, "Test failed but within success percentage");
+        log(Status.FAIL, "Test failed but within success percentage");
+        finish(result);
+        TestHistory.record(result);
+        BrowserMatrix.record(result);
     }
 
     @Override
     public void onTestFailedWithTimeout(ITestResult result) {
         onTestFailure(result);
     }
+
+    // A step to write, or with a null status, the end of the test and its TestNG result.
+    private static class LogEvent {
+        private final ExtentTest test;
+        private final Status status;
+        private final String details;
+        private final long time;
+        private final ITestResult result;
+
+        private LogEvent(ExtentTest test, Status status, String details, long time, ITestResult result) {
+            this.test = test;
+            this.status = status;
+            this.details = details;
+            this.time = time;
+            this.result = result;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Runs only the tests that failed or were skipped last time: -Drerun=failed.
+// The last outcome is read from the results file of the listener, or from -Drerun.from=<file or directory>.
+// Data-driven tests only get the parameter sets that failed, matched by their text form. Everything that passed
+// is carried over into the new results file and report, so after the rerun they show the whole suite again
+// with the latest outcome of every test. Registered in testng.xml next to TestScheduler.
+// After a browser matrix run every browser counts as a test of its own: a test that only failed on Firefox
+// is only run again on Firefox. Rerun with the same -Dbrowser.matrix as the run before.
+public class FailedTestRerun implements IMethodInterceptor, IDataProviderInterceptor {
+
+    public static final boolean ACTIVE = "failed".equalsIgnoreCase(TestConfig.get("rerun", "none"));
+
+    // Records of the last run, loaded once, before the listener starts a new results file.
+    private static List<TestRecord> previous;
+
+    // Tests to run again by TestHistory key, with the parameter sets that failed (empty without parameters).
+    private static Map<String, Set<String>> failed;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ACTIVE || failed() == null) {
+            return methods;
+        }
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (failed().containsKey(TestHistory.key(method.getMethod(), context))) {
+                selected.add(method);
+            }
+        }
+        System.out.println("Rerunning " + selected.size() + " of " + methods.size() + " tests that failed or were skipped last time.");
+        return selected;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext context) {
+        Set<String> parameterSets = ACTIVE && failed() != null ? failed().get(TestHistory.key(method, context)) : null;
+        if (parameterSets == null || parameterSets.isEmpty()) {
+            return original;
+        }
+        List<Object[]> selected = new ArrayList<>();
+        original.forEachRemaining(parameters -> {
+            if (parameterSets.contains(parameterKey(parameters))) {
+                selected.add(parameters);
+            }
+        });
+        return selected.iterator();
+    }
+
+    // Text form of the parameters of a test as kept in TestRecord, or null for a test without parameters.
+    public static String parameterKey(Object[] parameters) {
+        return parameters == null || parameters.length == 0 ? null : Arrays.deepToString(parameters);
+    }
+
+    // The records of the last run that are not run again; the listener writes them ahead of the new results.
+    // Empty outside of a rerun.
+    public static synchronized List<TestRecord> carriedOver() {
+        if (!ACTIVE || failed() == null) {
+            return List.of();
+        }
+        List<TestRecord> kept = new ArrayList<>();
+        for (TestRecord record : previous) {
+            if (!isRerun(record)) {
+                kept.add(record);
+            }
+        }
+        return kept;
+    }
+
+    // The failed tests of the last run, or null when there is nothing to go by and the whole suite runs.
+    private static synchronized Map<String, Set<String>> failed() {
+        if (previous == null) {
+            previous = readPrevious();
+            if (previous.isEmpty()) {
+                return null;
+            }
+            failed = new HashMap<>();
+            for (TestRecord record : previous) {
+                if (record.getMethod() == null) {
+                    System.out.println("The last results were written without method names; running all tests.");
+                    failed = null;
+                    return null;
+                }
+                if (isRerun(record)) {
+                    Set<String> parameterSets = failed.computeIfAbsent(record.getMethod(), key -> new HashSet<>());
+                    if (record.getParameters() != null) {
+                        parameterSets.add(record.getParameters());
+                    }
+                }
+            }
+        }
+        return failed;
+    }
+
+    private static boolean isRerun(TestRecord record) {
+        return "fail".equals(record.getStatus()) || "skip".equals(record.getStatus());
+    }
+
+    private static List<TestRecord> readPrevious() {
+        Path from = Paths.get(TestConfig.get("rerun.from", ExtentTestNGITestListener.getResultsFile().toString()));
+        List<TestRecord> records = new ArrayList<>();
+        try {
+            if (!Files.exists(from)) {
+                System.out.println("No results to rerun from in " + from + "; running all tests.");
+                return records;
+            }
+            for (Path file : ReportMerger.resultFiles(from)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            records.add(TestRecord.fromJson(line));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read the results in " + from + ", running all tests: " + e.getMessage());
+            records.clear();
+        }
+        return records;
+    }
+}
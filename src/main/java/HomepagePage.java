@@ -1,11 +1,12 @@
 import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.asserts.SoftAssert;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.testng.Assert.assertEquals;
@@ -13,11 +14,7 @@ import static org.testng.Assert.assertEquals;
 
 // Declaring the CheckoutPage class, which extends the BasePage class.
 // By extending BasePage, CheckoutPage inherits the WebDriver instance and the PageFactory initialization.
-public class HomepagePage extends BasePage {
-
-    // Declaring a public WebDriverWait variable named 'wait'.
-    // WebDriverWait is used for implementing explicit waits during interactions with web elements.
-    public WebDriverWait wait;
+public final class HomepagePage extends BasePage {
 
     public SoftAssert softAssert;
 
@@ -27,11 +24,8 @@ public class HomepagePage extends BasePage {
     public HomepagePage(WebDriver driver) {
         // Calling the parent class (BasePage) constructor using 'super' to initialize the WebDriver.
         super(driver);
-
-        // Initializing the WebDriverWait object with a 10-second timeout.
-        // This will be used to wait for certain conditions or elements during test execution.
-        wait = new WebDriverWait(driver, 10);
         softAssert = new SoftAssert();
+        initElements();
     }
 
     // Locating the search bar element using the @FindBy annotation.
@@ -259,7 +253,7 @@ public class HomepagePage extends BasePage {
         clickAwesomeChipsLink();
         clickHeartIcon();
         softAssert.assertEquals(getShoppingCartBadge().getText(), "1");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "Shopping Cart Badge was updated with success.");
+        ExtentTestNGITestListener.log(Status.PASS, "Shopping Cart Badge was updated with success.");
         clickShoppingCartBadge();
     }
 
@@ -274,7 +268,7 @@ public class HomepagePage extends BasePage {
         clickCartIcon();
         clickShoppingCartIcon();
         softAssert.assertEquals(getAwesomeChipsProduct().getText(), "Awesome Granite Chips");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "Awesome Granite Product was found in the Shopping Cart.");
+        ExtentTestNGITestListener.log(Status.PASS, "Awesome Granite Product was found in the Shopping Cart.");
     }
 
     @FindBy(xpath = "(//td[@class='amount'])[1]")
@@ -323,6 +317,14 @@ public class HomepagePage extends BasePage {
         return miscProduct;
     }
 
+    public By getMiscProductLocator() {
+        return locatorOf("miscProduct");
+    }
+
+    public By getProductsConfirmationLocator() {
+        return locatorOf("productsConfirmation");
+    }
+
     @FindBy(css = ".sort-products-select.form-control.form-control-sm")
     private WebElement sortBar;
 
@@ -330,20 +332,53 @@ public class HomepagePage extends BasePage {
         return sortBar;
     }
 
-    @FindBy(css = ".card-link")
+    // Locators of the product list, shared by the @FindBy fields and the bulk readers below.
+    private static final String PRODUCT_NAME_CSS = ".card-link";
+    private static final String PRODUCT_PRICE_XPATH = "//span[@style='font-weight: bold; font-size: 16px;']";
+
+    @FindBy(css = PRODUCT_NAME_CSS)
     private List<WebElement> productElements;
 
     public List<WebElement> getProductElements() {
         return productElements;
     }
 
-    @FindBy(xpath = "//span[@style='font-weight: bold; font-size: 16px;']")
+    @FindBy(xpath = PRODUCT_PRICE_XPATH)
     private List<WebElement> productPrices;
 
     public List<WebElement> getProductPrices() {
         return productPrices;
     }
 
+    // Names of all listed products, read with a single script call however long the list is.
+    public List<String> getProductNames() {
+        return readTexts(By.cssSelector(PRODUCT_NAME_CSS)).get(0);
+    }
+
+    // Prices of all listed products as numbers, read with a single script call.
+    public List<Double> getProductPriceValues() {
+        List<Double> prices = new ArrayList<>();
+        for (String price : readTexts(By.xpath(PRODUCT_PRICE_XPATH)).get(0)) {
+            prices.add(parsePrice(price));
+        }
+        return prices;
+    }
+
+    // Name and price of every listed product, in the order they are shown, from a single script call.
+    public List<ProductCard> getProductCards() {
+        List<List<String>> texts = readTexts(By.cssSelector(PRODUCT_NAME_CSS), By.xpath(PRODUCT_PRICE_XPATH));
+        List<String> names = texts.get(0);
+        List<String> prices = texts.get(1);
+        if (names.size() != prices.size()) {
+            throw new IllegalStateException("Found " + names.size() + " product names but " + prices.size() + " prices on the page.");
+        }
+        List<ProductCard> cards = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            cards.add(new ProductCard(names.get(i), parsePrice(prices.get(i))));
+        }
+        return cards;
+    }
+
 
 
     public double productPriceShirt() {
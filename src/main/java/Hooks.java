@@ -4,64 +4,172 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 
-// Importing WebDriverManager from the Bonigarcia library.
-// WebDriverManager automates the management of WebDriver binaries (e.g., ChromeDriver, GeckoDriver).
-import io.github.bonigarcia.wdm.WebDriverManager;
-
-// Importing WebDriver and ChromeDriver classes from the Selenium library.
-// WebDriver is used for interacting with the browser, and ChromeDriver is the specific implementation for Google Chrome.
+// Importing WebDriver and the session exceptions from the Selenium library.
+// WebDriver is used for interacting with the browser.
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
 
 // Importing TestNG annotations for setting up and tearing down test environments.
 // @BeforeMethod and @AfterMethod annotations define methods that are run before and after each test method.
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.testng.annotations.AfterClass;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.SkipException;
 import org.testng.annotations.AfterMethod;
-import org.testng.annotations.BeforeClass;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 // Declaring a class named Hooks.
 // This class contains setup and teardown methods that are commonly used across multiple test cases.
 public class Hooks {
 
-    // Declaring a public WebDriver variable named 'driver'.
-    // This WebDriver instance will be used to control the browser during the tests.
-    public WebDriver driver;
+    // Declaring the WebDriver of the current worker thread.
+    // TestNG shares one instance of a test class between the threads of a parallel run,
+    // so every thread keeps its own browser session here.
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
 
-    // Method annotated with @BeforeMethod, indicating that it will run before each test method.
-    // This method sets up the WebDriver and initializes the browser.
-    @BeforeMethod
-    public void setUp() {
+    // The page every test starts from, unless -Dbase.url (or BASE_URL) points the suite somewhere else.
+    public static final String DEFAULT_BASE_URL = "https://fasttrackit-test.netlify.app/#/";
 
-        // Using WebDriverManager to automatically download and set up the ChromeDriver binary.
-        WebDriverManager.chromedriver().setup();
+    // The local copy of the shop, started once per suite when running with -Dshop.local=true.
+    private static volatile LocalShopServer localShop;
 
-        // Initializing the WebDriver instance as a ChromeDriver, which launches a new Chrome browser window.
+    // The record/replay proxy the browsers go through, started once per suite when -Dproxy.mode is set.
+    private static volatile AssetProxy assetProxy;
 
-        ChromeOptions options = new ChromeOptions();
+    // Returns the URL the tests start from: the local shop when it runs, otherwise the configured or the public site,
+    // reached through the asset proxy when one is running.
+    public static String baseUrl() {
+        AssetProxy proxy = assetProxy;
+        return proxy != null ? proxy.rewrite(siteUrl()) : siteUrl();
+    }
 
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--disable-search-engine-choice-screen");
+    // Returns the host:port of the asset proxy for the browser options, or null without a proxy.
+    public static String proxyAddress() {
+        AssetProxy proxy = assetProxy;
+        return proxy != null ? proxy.getAddress() : null;
+    }
 
-        driver = new ChromeDriver(options);
+    private static String siteUrl() {
+        LocalShopServer shop = localShop;
+        return shop != null ? shop.getBaseUrl() : TestConfig.get("base.url", DEFAULT_BASE_URL);
+    }
 
+    // Method annotated with @BeforeSuite, indicating that it will run once before all the tests of the suite.
+    // With -Dshop.local=true it starts the embedded server with the pinned snapshot of the shop,
+    // and with -Dproxy.mode=record|replay|block the asset proxy in front of the site.
+    @BeforeSuite(alwaysRun = true)
+    public void startLocalShop() {
+        if (TestConfig.getBoolean("shop.local", false) && localShop == null) {
+            localShop = LocalShopServer.start(
+                    Paths.get(TestConfig.get("shop.snapshot.dir", "src/test/resources/shop")),
+                    TestConfig.getInt("shop.local.port", 0));
+        }
+        if (assetProxy == null) {
+            assetProxy = AssetProxy.startFromConfig(siteUrl());
+        }
+
+        // With -Ddriver.prewarm=true the first browsers start now at the latest, while the suite gets ready.
+        SessionLauncher.prewarm();
+    }
 
-        // Maximizing the browser window to ensure that all elements are visible and accessible during the test.
-        driver.manage().window().maximize();
+    // Method annotated with @BeforeMethod, indicating that it will run before each test method.
+    // This method sets up the WebDriver and initializes the browser of the current <test> (see BrowserMatrix).
+    @BeforeMethod
+    public void setUp(ITestContext context) {
+
+        // After the first failure of a fail-fast run the remaining tests are skipped before a browser is started.
+        if (TestScheduler.abortReason() != null) {
+            throw new SkipException(TestScheduler.abortReason());
+        }
+
+        // Initializing the WebDriver instance, either by launching a new browser window (or taking one
+        // started ahead by the SessionLauncher) or, when the pooled mode is on, by borrowing a warm session of this worker.
+        String browser = BrowserMatrix.browserOf(context);
+        WebDriver driver = DriverPool.ENABLED ? DriverPool.borrow(browser) : SessionLauncher.take(browser);
+        DRIVER.set(driver);
 
         // Navigating to the specified URL in the browser. 
         // This is the starting point for the tests, loading the web application under test.
-        driver.get("https://fasttrackit-test.netlify.app/#/");
+        driver.get(baseUrl());
     }
 
     // Method annotated with @AfterMethod, indicating that it will run after each test method.
     // This method tears down the WebDriver instance and closes the browser.
-    @AfterMethod
-    public void tearDown() {
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        WebDriver driver = DRIVER.get();
+        if (driver == null) {
+            return;
+        }
+
+        try {
+            if (DriverPool.ENABLED) {
+                // Returning the session to the pool; a session that lost its browser is never reused.
+                DriverPool.release(driver, !isBrowserLost(result.getThrowable()));
+            } else {
+                // Quitting the WebDriver session, which closes all browser windows and ends the WebDriver process.
+                // With -Ddriver.quit.async=true this happens in the background while the next test starts.
+                SessionCloser.quit(driver);
+            }
+        } finally {
+            DRIVER.remove();
+        }
+    }
+
+    // Returns the browser session of the current worker thread.
+    public WebDriver getDriver() {
+        return DRIVER.get();
+    }
+
+    // Method annotated with @AfterSuite, quitting the sessions still kept warm by the pool
+    // and stopping the asset proxy and the local shop server.
+    // A worker of a distributed run runs a suite per test and keeps all of it until it has no more work.
+    @AfterSuite(alwaysRun = true)
+    public void shutDownPool() {
+        if (!TestWorker.isRunning()) {
+            releaseSuiteResources();
+        }
+    }
+
+    public static void releaseSuiteResources() {
+        SessionLauncher.shutdown();
+        DriverPool.shutdown();
+        SessionCloser.shutdown();
+        System.out.println(CachingElementLocatorFactory.describeTotals());
+        if (BrowserMatrix.isActive()) {
+            String browsers = BrowserMatrix.describe();
+            System.out.println(browsers);
+            ExtentTestNGITestListener.addSummary("Results per browser", browsers);
+        }
+        if (DriverLatency.ENABLED && DriverLatency.hasSamples()) {
+            String latency = DriverLatency.describe();
+            System.out.println(latency);
+            ExtentTestNGITestListener.addSummary("WebDriver command latency", latency);
+            try {
+                DriverLatency.exportCsv();
+            } catch (IOException e) {
+                System.out.println("Could not export " + DriverLatency.getCsvPath() + ": " + e.getMessage());
+            }
+        }
+        if (assetProxy != null) {
+            assetProxy.stop();
+            assetProxy = null;
+        }
+        if (localShop != null) {
+            localShop.stop();
+            localShop = null;
+        }
+    }
 
-        // Quitting the WebDriver session, which closes all browser windows and ends the WebDriver process.
-        driver.quit();
+    private static boolean isBrowserLost(Throwable throwable) {
+        return throwable instanceof NoSuchSessionException
+                || throwable instanceof UnreachableBrowserException
+                || throwable instanceof SessionNotCreatedException;
     }
 }
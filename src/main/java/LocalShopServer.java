@@ -0,0 +1,193 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Embedded HTTP server serving a pinned snapshot of the shop's static bundle from disk.
+// With -Dshop.local=true Hooks starts it once per suite and points the tests at it, so the whole
+// suite runs against localhost: no internet round trips, no dependency on Netlify being up,
+// and the same shop build on every run.
+//
+// src/test/resources/shop holds a small hand-written fixture with the markup, texts and routes the page objects use.
+// A snapshot of the real bundle can replace it (or go to another folder picked with -Dshop.snapshot.dir):
+//     java LocalShopServer snapshot https://fasttrackit-test.netlify.app/ src/test/resources/shop
+public final class LocalShopServer {
+
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=utf-8"),
+            Map.entry("js", "application/javascript; charset=utf-8"),
+            Map.entry("css", "text/css; charset=utf-8"),
+            Map.entry("json", "application/json; charset=utf-8"),
+            Map.entry("map", "application/json; charset=utf-8"),
+            Map.entry("txt", "text/plain; charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"),
+            Map.entry("eot", "application/vnd.ms-fontobject"));
+
+    private final Path root;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private LocalShopServer(Path root, int port) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    // Starts a server for the snapshot folder; port 0 picks a free port.
+    public static LocalShopServer start(Path root, int port) {
+        if (!Files.isRegularFile(root.resolve("index.html"))) {
+            throw new IllegalStateException("No shop snapshot found in " + root.toAbsolutePath()
+                    + ". Take one with: java LocalShopServer snapshot <shop url> " + root);
+        }
+        try {
+            LocalShopServer shop = new LocalShopServer(root, port);
+            shop.server.start();
+            System.out.println("Serving the shop snapshot " + shop.root + " on " + shop.getBaseUrl());
+            return shop;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the local shop server on port " + port, e);
+        }
+    }
+
+    // The URL the tests start from; the shop uses hash routing, so the server only ever sees asset paths.
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/#/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            Path file = root.resolve(exchange.getRequestURI().getPath().substring(1)).normalize();
+            if (!file.startsWith(root)) {
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+            // Unknown routes fall back to the single page app, just like the Netlify rewrite rule,
+            // while a missing asset is a real 404 so a broken snapshot does not go unnoticed.
+            if (!Files.isRegularFile(file)) {
+                if (!extension(file).isEmpty()) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                file = root.resolve("index.html");
+            }
+
+            byte[] body = Files.readAllBytes(file);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPES.getOrDefault(extension(file), "application/octet-stream"));
+            // The snapshot never changes while the suite runs, so everything but the entry page is cached by the browser.
+            exchange.getResponseHeaders().set("Cache-Control", file.endsWith("index.html") ? "no-cache" : "max-age=31536000, immutable");
+
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    // Same-origin asset references inside html, js and css files, e.g. "/static/js/main.1a2b3c.js" or url(static/media/x.svg).
+    private static final Pattern ASSET_REFERENCE = Pattern.compile(
+            "[\"'(]/?((?:static|assets|images|img|fonts|media)/[^\"'()\\s?#]+|[\\w.-]+\\.(?:js|css|json|ico|png|svg|webmanifest))[\"')?#]");
+
+    // Mirrors the entry page and every same-origin asset it references, following js and css files recursively.
+    static void snapshot(URI shopUrl, Path target) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+        URI origin = shopUrl.resolve("/");
+        Path folder = target.toAbsolutePath().normalize();
+        Deque<String> pending = new ArrayDeque<>();
+        Set<String> seen = new HashSet<>();
+        pending.add("index.html");
+
+        while (!pending.isEmpty()) {
+            String path = pending.poll();
+            if (!seen.add(path)) {
+                continue;
+            }
+            HttpResponse<byte[]> response = client.send(
+                    HttpRequest.newBuilder(origin.resolve(path.equals("index.html") ? "/" : "/" + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                System.out.println("Skipping " + path + " (HTTP " + response.statusCode() + ")");
+                continue;
+            }
+
+            Path file = folder.resolve(path).normalize();
+            if (!file.startsWith(folder)) {
+                continue;
+            }
+            Files.createDirectories(file.getParent());
+            Files.write(file, response.body());
+            System.out.println("Saved " + path);
+
+            String type = extension(file);
+            if (type.equals("html") || type.equals("js") || type.equals("css") || type.equals("json")) {
+                Matcher matcher = ASSET_REFERENCE.matcher(new String(response.body(), StandardCharsets.UTF_8));
+                while (matcher.find()) {
+                    pending.add(matcher.group(1));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("snapshot")) {
+            snapshot(URI.create(args[1]), Paths.get(args[2]));
+        } else if (args.length >= 1 && args[0].equals("serve")) {
+            Path root = Paths.get(args.length > 1 ? args[1] : TestConfig.get("shop.snapshot.dir", "src/test/resources/shop"));
+            start(root, TestConfig.getInt("shop.local.port", 8080));
+        } else {
+            System.out.println("Usage: LocalShopServer snapshot <shop url> <target folder>");
+            System.out.println("       LocalShopServer serve [snapshot folder]");
+        }
+    }
+}
@@ -0,0 +1,419 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Checks every @FindBy of every page object against the shop and writes a report with suggestions.
+//
+// The page objects are found by scanning the compiled classes for BasePage subclasses. Because a page object
+// covers several screens, the shop is brought into a number of states (homepage, product page, cart,
+// checkout form, ...) through the page objects themselves, and every locator is evaluated in each of them.
+// A locator's home is the first state it matches in. There it is timed in the page (the engine cost of the
+// query, averaged over many runs) and over the wire (a findElements round trip), and unique CSS selectors
+// for the same element(s) are searched and timed as replacements.
+//
+// Flags: MISSING (matches in no state), AMBIGUOUS (a single-element field matching several elements, so the
+// first one in document order wins), SLOW (clearly slower in the page than the best suggestion, or above
+// -Dlocator.slow-micros), POSITIONAL (XPath index), COMPOUND (three or more classes), TRAILING_SPACE,
+// TEXT (matches on visible text) and SHARED (the same locator on several fields of one page).
+//
+// Usage: java LocatorAnalyzer [report.md]   (default target/locator-report.md; honours -Dshop.local, -Dbase.url)
+public final class LocatorAnalyzer {
+
+    private static final int ITERATIONS = TestConfig.getInt("locator.iterations", 200);
+    private static final double SLOW_MICROS = TestConfig.getInt("locator.slow-micros", 100);
+
+    // A suggestion has to be this many times faster in the page before the original is called slow.
+    private static final double SLOW_FACTOR = 3;
+
+    private static final Pattern POSITIONAL = Pattern.compile("\\[\\d+\\]");
+    private static final Pattern CSS_CLASS = Pattern.compile("\\.[\\w-]+");
+
+    // Evaluates a list of queries: number of matches, number displayed, and the in-page cost of one query.
+    // For queries flagged in arguments[2] it also returns the unique CSS selectors matching the same element(s).
+    private static final String ANALYZE_SCRIPT = Locators.FIND_ALL_FUNCTION
+            + "var queries = arguments[0], iterations = arguments[1], suggestFor = arguments[2];"
+            + "function displayed(e) {"
+            + "  return !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)"
+            + "      && window.getComputedStyle(e).visibility !== 'hidden';"
+            + "}"
+            + "function time(f) {"
+            + "  var start = performance.now();"
+            + "  for (var i = 0; i < iterations; i++) { f(); }"
+            + "  return (performance.now() - start) * 1000 / iterations;"
+            + "}"
+            + "function sameSet(css, targets) {"
+            + "  try {"
+            + "    var m = document.querySelectorAll(css);"
+            + "    if (m.length !== targets.length) { return false; }"
+            + "    for (var i = 0; i < m.length; i++) { if (m[i] !== targets[i]) { return false; } }"
+            + "    return true;"
+            + "  } catch (x) { return false; }"
+            + "}"
+            + "function candidates(e) {"
+            + "  var tag = e.tagName.toLowerCase(), out = [];"
+            + "  if (e.id) { out.push('#' + CSS.escape(e.id)); }"
+            + "  ['name', 'data-test', 'data-testid', 'aria-label', 'title', 'placeholder', 'type'].forEach(function (a) {"
+            + "    var v = e.getAttribute(a);"
+            + "    if (v) { out.push(tag + '[' + a + '=\"' + v.replace(/\"/g, '\\\\\"') + '\"]'); }"
+            + "  });"
+            + "  var classes = Array.prototype.map.call(e.classList, function (k) { return '.' + CSS.escape(k); });"
+            + "  classes.forEach(function (k) { out.push(k); out.push(tag + k); });"
+            + "  for (var i = 0; i < classes.length; i++) {"
+            + "    for (var j = i + 1; j < classes.length; j++) { out.push(classes[i] + classes[j]); }"
+            + "  }"
+            + "  return out;"
+            + "}"
+            // Last resort: the position of the element below its closest ancestor with an id.
+            + "function path(e) {"
+            + "  var parts = [];"
+            + "  while (e && e.nodeType === 1 && e !== document.documentElement) {"
+            + "    if (e.id) { parts.unshift('#' + CSS.escape(e.id)); break; }"
+            + "    var n = 1, s = e;"
+            + "    while ((s = s.previousElementSibling)) { if (s.tagName === e.tagName) { n++; } }"
+            + "    parts.unshift(e.tagName.toLowerCase() + ':nth-of-type(' + n + ')');"
+            + "    e = e.parentElement;"
+            + "  }"
+            + "  return parts.join(' > ');"
+            + "}"
+            + "return queries.map(function (q, index) {"
+            + "  var found = findAll(q);"
+            + "  var result = { count: found.length, displayed: found.filter(displayed).length,"
+            + "                 micros: time(function () { findAll(q); }) };"
+            + "  if (suggestFor[index] && found.length > 0) {"
+            + "    var targets = q.single ? [found[0]] : found;"
+            + "    var pool = candidates(found[0]);"
+            + "    if (q.single) { pool.push(path(found[0])); }"
+            + "    var seen = {};"
+            + "    result.suggestions = pool.filter(function (css) {"
+            + "      if (seen[css]) { return false; } seen[css] = true; return sameSet(css, targets);"
+            + "    }).map(function (css) {"
+            + "      return { css: css, micros: time(function () { document.querySelectorAll(css); }) };"
+            + "    });"
+            + "  }"
+            + "  return result;"
+            + "});";
+
+    private LocatorAnalyzer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path report = Paths.get(args.length > 0 ? args[0] : "target/locator-report.md");
+
+        List<LocatorUse> uses = new ArrayList<>();
+        for (Class<?> page : pageClasses()) {
+            uses.addAll(locatorsOf(page));
+        }
+        System.out.println("Analyzing " + uses.size() + " locators of " + uses.stream().map(use -> use.page).distinct().count() + " page objects");
+
+        LocalShopServer shop = null;
+        String baseUrl = Hooks.baseUrl();
+        if (TestConfig.getBoolean("shop.local", false)) {
+            shop = LocalShopServer.start(Paths.get(TestConfig.get("shop.snapshot.dir", "src/test/resources/shop")), 0);
+            baseUrl = shop.getBaseUrl();
+        }
+        WebDriver driver = DriverFactory.createDriver();
+        try {
+            for (Map.Entry<String, Consumer<WebDriver>> state : states().entrySet()) {
+                try {
+                    open(driver, baseUrl, state.getValue());
+                } catch (RuntimeException e) {
+                    System.out.println("Skipping state '" + state.getKey() + "': " + e.getMessage());
+                    continue;
+                }
+                evaluate(driver, state.getKey(), uses);
+            }
+        } finally {
+            driver.quit();
+            if (shop != null) {
+                shop.stop();
+            }
+        }
+
+        flag(uses);
+        write(report, baseUrl, uses);
+        long flagged = uses.stream().filter(use -> !use.flags.isEmpty()).count();
+        System.out.println(flagged + " of " + uses.size() + " locators flagged, report written to " + report.toAbsolutePath());
+    }
+
+    // States of the shop the locators are evaluated in, each reached from a fresh homepage.
+    private static Map<String, Consumer<WebDriver>> states() {
+        Map<String, Consumer<WebDriver>> states = new LinkedHashMap<>();
+        states.put("homepage", driver -> {
+        });
+        states.put("login form", driver -> new LoginPage(driver).clickLoginIcon());
+        states.put("logged in", driver -> new LoginPage(driver).loginDino());
+        states.put("product page", driver -> new CheckoutPage(driver).clickAwesomeChipsLink());
+        states.put("cart", driver -> new CheckoutPage(driver).addAwesomeChipsToCart());
+        states.put("wishlist", driver -> {
+            CheckoutPage page = new CheckoutPage(driver);
+            page.addProductToWishlist();
+            page.clickWishlistButton();
+        });
+        states.put("checkout form", driver -> {
+            CheckoutPage page = new CheckoutPage(driver);
+            page.addAwesomeChipsToCart();
+            page.clickCheckoutButton();
+        });
+        states.put("order summary", driver -> {
+            CheckoutPage page = new CheckoutPage(driver);
+            page.addAwesomeChipsToCart();
+            page.clickCheckoutButton();
+            page.addDeliveryDetailsToOrder();
+            page.clickContinueCheckoutButton();
+        });
+        return states;
+    }
+
+    private static void open(WebDriver driver, String baseUrl, Consumer<WebDriver> setup) {
+        driver.manage().deleteAllCookies();
+        driver.get(baseUrl);
+        ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        new LoginPage(driver).clickResetButton();
+        driver.get(baseUrl);
+        setup.accept(driver);
+    }
+
+    // Evaluates all analyzable locators in the current state with one script call; locators that match
+    // here for the first time also get their suggestions and their round trip timing.
+    @SuppressWarnings("unchecked")
+    private static void evaluate(WebDriver driver, String state, List<LocatorUse> uses) {
+        List<LocatorUse> analyzable = uses.stream().filter(use -> use.query != null).collect(Collectors.toList());
+        List<Map<String, Object>> queries = new ArrayList<>();
+        List<Boolean> suggestFor = new ArrayList<>();
+        for (LocatorUse use : analyzable) {
+            Map<String, Object> query = new HashMap<>(use.query);
+            query.put("single", !use.list);
+            queries.add(query);
+            suggestFor.add(use.home == null);
+        }
+        List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                .executeScript(ANALYZE_SCRIPT, queries, ITERATIONS, suggestFor);
+
+        for (int i = 0; i < analyzable.size(); i++) {
+            LocatorUse use = analyzable.get(i);
+            Map<String, Object> result = results.get(i);
+            int count = ((Number) result.get("count")).intValue();
+            if (use.home != null || count == 0) {
+                continue;
+            }
+            use.home = state;
+            use.count = count;
+            use.displayed = ((Number) result.get("displayed")).intValue();
+            use.micros = ((Number) result.get("micros")).doubleValue();
+            for (Map<String, Object> suggestion : (List<Map<String, Object>>) result.get("suggestions")) {
+                use.suggestions.add(new Suggestion((String) suggestion.get("css"), ((Number) suggestion.get("micros")).doubleValue()));
+            }
+            // Plain selectors first, positional ones only as a last resort; then the fastest.
+            use.suggestions.sort(Comparator.comparing((Suggestion s) -> s.css.contains(":nth-of-type")).thenComparingDouble(s -> s.micros));
+            use.roundTripMillis = roundTrip(driver, use.by);
+        }
+    }
+
+    // Median of five findElements round trips.
+    private static double roundTrip(WebDriver driver, By by) {
+        double[] millis = new double[5];
+        for (int i = 0; i < millis.length; i++) {
+            long start = System.nanoTime();
+            driver.findElements(by);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[millis.length / 2];
+    }
+
+    private static void flag(List<LocatorUse> uses) {
+        Map<String, Long> perPageAndLocator = uses.stream()
+                .collect(Collectors.groupingBy(use -> use.page + " " + use.by, Collectors.counting()));
+        for (LocatorUse use : uses) {
+            String description = use.by.toString();
+            String value = description.substring(description.indexOf(": ") + 2);
+            if (use.query == null) {
+                use.flags.add("UNSUPPORTED");
+            } else if (use.home == null) {
+                use.flags.add("MISSING");
+            } else {
+                if (!use.list && use.count > 1) {
+                    use.flags.add("AMBIGUOUS");
+                }
+                Suggestion best = use.best();
+                if (use.micros > SLOW_MICROS || (best != null && use.micros > SLOW_FACTOR * best.micros)) {
+                    use.flags.add("SLOW");
+                }
+            }
+            if (description.startsWith("By.xpath") && POSITIONAL.matcher(value).find()) {
+                use.flags.add("POSITIONAL");
+            }
+            if (description.startsWith("By.cssSelector") && CSS_CLASS.matcher(value).results().count() >= 3) {
+                use.flags.add("COMPOUND");
+            }
+            if (!value.equals(value.trim())) {
+                use.flags.add("TRAILING_SPACE");
+            }
+            if (description.startsWith("By.linkText") || description.startsWith("By.partialLinkText") || value.contains("text()")) {
+                use.flags.add("TEXT");
+            }
+            if (perPageAndLocator.get(use.page + " " + use.by) > 1) {
+                use.flags.add("SHARED");
+            }
+        }
+    }
+
+    private static void write(Path report, String baseUrl, List<LocatorUse> uses) throws IOException {
+        Path absolute = report.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(absolute, StandardCharsets.UTF_8)) {
+            out.write("# Locator report\n\n");
+            out.write("Evaluated against " + baseUrl + ", in-page cost averaged over " + ITERATIONS + " queries.\n\n");
+
+            Map<String, Long> flagCounts = uses.stream().flatMap(use -> use.flags.stream())
+                    .collect(Collectors.groupingBy(flag -> flag, LinkedHashMap::new, Collectors.counting()));
+            out.write("| flag | locators |\n|---|---|\n");
+            for (Map.Entry<String, Long> count : flagCounts.entrySet()) {
+                out.write("| " + count.getKey() + " | " + count.getValue() + " |\n");
+            }
+
+            Map<String, List<LocatorUse>> perPage = uses.stream()
+                    .collect(Collectors.groupingBy(use -> use.page, LinkedHashMap::new, Collectors.toList()));
+            for (Map.Entry<String, List<LocatorUse>> page : perPage.entrySet()) {
+                out.write("\n## " + page.getKey() + "\n\n");
+                out.write("| field | locator | found in | matches (shown) | in page µs | round trip ms | flags | suggestion (µs) |\n");
+                out.write("|---|---|---|---|---|---|---|---|\n");
+                List<LocatorUse> flaggedFirst = new ArrayList<>(page.getValue());
+                flaggedFirst.sort(Comparator.comparing((LocatorUse use) -> use.flags.isEmpty()));
+                for (LocatorUse use : flaggedFirst) {
+                    Suggestion best = use.best();
+                    out.write("| " + use.field + (use.list ? " (list)" : "")
+                            + " | `" + cell(use.by.toString()) + "`"
+                            + " | " + (use.home == null ? "-" : use.home)
+                            + " | " + (use.home == null ? "0" : use.count + " (" + use.displayed + ")")
+                            + " | " + (use.home == null ? "-" : String.format(Locale.ROOT, "%.1f", use.micros))
+                            + " | " + (use.home == null ? "-" : String.format(Locale.ROOT, "%.1f", use.roundTripMillis))
+                            + " | " + String.join(", ", use.flags)
+                            + " | " + (best == null ? "-" : "`" + cell(best.css) + "` (" + String.format(Locale.ROOT, "%.1f", best.micros) + ")")
+                            + " |\n");
+                }
+            }
+        }
+    }
+
+    private static String cell(String text) {
+        return text.replace("|", "\\|").replace("`", "'");
+    }
+
+    // Every concrete BasePage subclass next to BasePage itself, in a class folder or a jar.
+    private static List<Class<?>> pageClasses() throws IOException, URISyntaxException {
+        Path location = Paths.get(BasePage.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> classNames = new ArrayList<>();
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> files = Files.walk(location)) {
+                files.map(file -> location.relativize(file).toString().replace('\\', '/')).forEach(classNames::add);
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                jar.stream().map(entry -> entry.getName()).forEach(classNames::add);
+            }
+        }
+
+        List<Class<?>> pages = new ArrayList<>();
+        for (String name : classNames) {
+            if (!name.endsWith(".class") || name.contains("$") || name.startsWith("META-INF")) {
+                continue;
+            }
+            try {
+                Class<?> type = Class.forName(name.substring(0, name.length() - ".class".length()).replace('/', '.'), false,
+                        LocatorAnalyzer.class.getClassLoader());
+                if (BasePage.class.isAssignableFrom(type) && type != BasePage.class && !Modifier.isAbstract(type.getModifiers())) {
+                    pages.add(type);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Not loadable on its own (e.g. an optional dependency is missing); cannot be a page object we use.
+            }
+        }
+        pages.sort(Comparator.comparing(Class::getSimpleName));
+        return pages;
+    }
+
+    private static List<LocatorUse> locatorsOf(Class<?> page) {
+        List<LocatorUse> uses = new ArrayList<>();
+        for (Class<?> type = page; type != BasePage.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class) || field.isAnnotationPresent(FindAll.class)) {
+                    uses.add(new LocatorUse(page.getSimpleName(), field));
+                }
+            }
+        }
+        return uses;
+    }
+
+    private static class LocatorUse {
+        private final String page;
+        private final String field;
+        private final boolean list;
+        private final By by;
+        // The in-page form of the locator, or null for strategies the scripts cannot evaluate.
+        private final Map<String, String> query;
+
+        private String home;
+        private int count;
+        private int displayed;
+        private double micros;
+        private double roundTripMillis;
+        private final List<Suggestion> suggestions = new ArrayList<>();
+        private final List<String> flags = new ArrayList<>();
+
+        private LocatorUse(String page, Field field) {
+            this.page = page;
+            this.field = field.getName();
+            this.list = List.class.isAssignableFrom(field.getType());
+            this.by = new Annotations(field).buildBy();
+            Map<String, String> query;
+            try {
+                query = Locators.toQuery(by);
+            } catch (IllegalArgumentException e) {
+                query = null;
+            }
+            this.query = query;
+        }
+
+        private Suggestion best() {
+            return suggestions.isEmpty() ? null : suggestions.get(0);
+        }
+    }
+
+    private static class Suggestion {
+        private final String css;
+        private final double micros;
+
+        private Suggestion(String css, double micros) {
+            this.css = css;
+            this.micros = micros;
+        }
+    }
+}
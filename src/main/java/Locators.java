@@ -0,0 +1,76 @@
+import org.openqa.selenium.By;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Turns Selenium locators into something the in-page scripts of the framework understand.
+// Selenium 3 does not expose the strategy of a By, so it is read from its toString() ("By.cssSelector: .error").
+public final class Locators {
+
+    // JavaScript function 'findAll(query)' returning the elements matching a query in document order.
+    // In-page scripts of the framework start with this snippet.
+    public static final String FIND_ALL_FUNCTION =
+            "function findAll(q) {"
+                    + "  if (q.css) { return Array.prototype.slice.call(document.querySelectorAll(q.css)); }"
+                    + "  var r = document.evaluate(q.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+                    + "  var found = [];"
+                    + "  for (var i = 0; i < r.snapshotLength; i++) { found.push(r.snapshotItem(i)); }"
+                    + "  return found;"
+                    + "}";
+
+    private Locators() {
+    }
+
+    // Returns {css: selector} or {xpath: expression} for the given locator.
+    public static Map<String, String> toQuery(By locator) {
+        String description = locator.toString();
+        int colon = description.indexOf(": ");
+        if (colon < 0) {
+            throw new IllegalArgumentException("Unsupported locator " + description);
+        }
+        String strategy = description.substring(0, colon);
+        String value = description.substring(colon + 2);
+
+        Map<String, String> query = new HashMap<>();
+        switch (strategy) {
+            case "By.cssSelector":
+                query.put("css", value);
+                break;
+            case "By.id":
+                query.put("css", "[id='" + value.replace("'", "\\'") + "']");
+                break;
+            case "By.className":
+                query.put("css", "." + value.trim());
+                break;
+            case "By.name":
+                query.put("css", "[name='" + value.replace("'", "\\'") + "']");
+                break;
+            case "By.tagName":
+                query.put("css", value);
+                break;
+            case "By.xpath":
+                query.put("xpath", value);
+                break;
+            case "By.linkText":
+                query.put("xpath", "//a[normalize-space(.)=" + xpathLiteral(value) + "]");
+                break;
+            case "By.partialLinkText":
+                query.put("xpath", "//a[contains(., " + xpathLiteral(value) + ")]");
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported locator " + description);
+        }
+        return query;
+    }
+
+    // Quotes a value for use inside an XPath expression, also when it contains both kinds of quotes.
+    private static String xpathLiteral(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        if (!value.contains("\"")) {
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+}
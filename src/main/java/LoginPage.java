@@ -1,10 +1,9 @@
 import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.asserts.SoftAssert;
 
 import java.util.List;
@@ -14,11 +13,7 @@ import static org.testng.Assert.assertEquals;
 
 // Declaring the CheckoutPage class, which extends the BasePage class.
 // By extending BasePage, CheckoutPage inherits the WebDriver instance and the PageFactory initialization.
-public class LoginPage extends BasePage {
-
-    // Declaring a public WebDriverWait variable named 'wait'.
-    // WebDriverWait is used for implementing explicit waits during interactions with web elements.
-    public WebDriverWait wait;
+public final class LoginPage extends BasePage {
 
     public SoftAssert softAssert;
 
@@ -28,11 +23,8 @@ public class LoginPage extends BasePage {
     public LoginPage(WebDriver driver) {
         // Calling the parent class (BasePage) constructor using 'super' to initialize the WebDriver.
         super(driver);
-
-        // Initializing the WebDriverWait object with a 10-second timeout.
-        // This will be used to wait for certain conditions or elements during test execution.
-        wait = new WebDriverWait(driver, 10);
         softAssert = new SoftAssert();
+        initElements();
     }
 
     // Locating the search bar element using the @FindBy annotation.
@@ -92,6 +84,10 @@ public class LoginPage extends BasePage {
         return userLoggedIn;
     }
 
+    public By getUserLoggedInLocator() {
+        return locatorOf("userLoggedIn");
+    }
+
     @FindBy(css = ".error")
     private WebElement errorMessage;
 
@@ -120,6 +116,12 @@ public class LoginPage extends BasePage {
         clickLoginButton();
     }
 
+    // Ends up like loginDino(), but restores a recorded state seed when there is one.
+    // For tests that only need a logged in user as a precondition.
+    public void seedLoginDino() {
+        StateSeeds.apply(driver, "logged-in-dino", this::loginDino, getUserLoggedInLocator());
+    }
+
     @FindBy(css = ".svg-inline--fa.fa-undo.fa-w-16 ")
     private WebElement resetButton;
 
@@ -131,6 +133,10 @@ public class LoginPage extends BasePage {
         return resetButton;
     }
 
+    public By getResetButtonLocator() {
+        return locatorOf("resetButton");
+    }
+
     @FindBy(css = ".svg-inline--fa.fa-sign-out-alt.fa-w-16 ")
     private WebElement signOutButton;
 
@@ -145,8 +151,8 @@ public class LoginPage extends BasePage {
         return confirmationLogin;
     }
 
-    public void clickWhenReady(WebElement locator) {
-        WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
+    public void clickWhenReady(By locator) {
+        WebElement element = domWait.untilClickable(locator);
         element.click();
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+// Suite listener registered in testng.xml that sizes the parallel run to the machine it runs on.
+// The thread count in the XML is only a placeholder: before the suite starts it is replaced with
+// the number of available cores times 'threads.per-core', or with an explicit '-Dthreads=N'.
+// With -Dbrowser.matrix it also copies the tests once per browser, see BrowserMatrix.
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = threadCount();
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() != XmlSuite.ParallelMode.NONE) {
+                suite.setThreadCount(threads);
+                suite.setDataProviderThreadCount(threads);
+                System.out.println("Running suite '" + suite.getName() + "' with " + threads + " parallel threads.");
+            }
+            if (BrowserMatrix.isActive()) {
+                BrowserMatrix.expand(suite, suite.getThreadCount());
+            }
+        }
+
+        // Browsers started now boot while TestNG discovers the tests (-Ddriver.prewarm=true).
+        SessionLauncher.prewarmEarly();
+    }
+
+    public static int threadCount() {
+        int perCore = TestConfig.getInt("threads.per-core", 1);
+        int threads = TestConfig.getInt("threads", Runtime.getRuntime().availableProcessors() * perCore);
+        return Math.max(1, threads);
+    }
+}
@@ -0,0 +1,24 @@
+// Name and price of one product shown in the product list of the shop.
+public class ProductCard {
+
+    private final String name;
+    private final double price;
+
+    public ProductCard(String name, double price) {
+        this.name = name;
+        this.price = price;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    @Override
+    public String toString() {
+        return name + " ($" + price + ")";
+    }
+}
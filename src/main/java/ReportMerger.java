@@ -0,0 +1,139 @@
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Combines the result files of a sharded run (results-<shard>.jsonl, one per JVM or CI machine)
+// into one Extent report. Every test is tagged with its shard as a category, so the report shows
+// the totals of the whole run as well as a breakdown per shard, and keeps the original timings.
+//
+// Usage: ReportMerger <output.html> <result file or directory>...
+// Directories are searched for results*.jsonl. Also available as 'mvn -Pmerge-reports exec:java'.
+public final class ReportMerger {
+
+    private ReportMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ReportMerger <output.html> <result file or directory>...");
+            System.exit(2);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.addAll(resultFiles(Paths.get(args[i])));
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("No result files found in " + String.join(", ", List.of(args).subList(1, args.length)));
+            System.exit(1);
+        }
+        System.out.println(merge(inputs, Paths.get(args[0])));
+    }
+
+    // Writes the merged report and returns a one line summary of it.
+    public static String merge(List<Path> inputs, Path output) throws IOException {
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(new ExtentSparkReporter(output.toString()));
+
+        Map<String, ShardTotals> shards = new TreeMap<>();
+        long first = Long.MAX_VALUE;
+        long last = 0;
+        for (Path input : inputs) {
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    TestRecord record = TestRecord.fromJson(line);
+                    String shard = record.getShard() == null ? shardOf(input) : record.getShard();
+                    add(extent, record, "shard " + shard);
+                    shards.computeIfAbsent(shard, key -> new ShardTotals()).add(record);
+                    first = Math.min(first, record.getStart());
+                    last = Math.max(last, record.getEnd());
+                }
+            }
+        }
+
+        for (Map.Entry<String, ShardTotals> shard : shards.entrySet()) {
+            extent.setSystemInfo("Shard " + shard.getKey(), shard.getValue().toString());
+        }
+        if (last > 0) {
+            // The run took from the first test start of any shard to the last test end, not the time of merging.
+            extent.getReport().setStartTime(new Date(first));
+        }
+        extent.flush();
+        if (last > 0) {
+            extent.getReport().setEndTime(new Date(last));
+            extent.flush();
+        }
+
+        int tests = shards.values().stream().mapToInt(totals -> totals.tests).sum();
+        return "Merged " + tests + " tests from " + shards.size() + " shard(s) into " + output;
+    }
+
+    // Recreates a recorded test in the report, with its original steps and times.
+    static void add(ExtentReports extent, TestRecord record, String category) {
+        ExtentTest test = extent.createTest(record.getName(), record.getDescription());
+        test.assignCategory(category);
+        for (TestRecord.Step step : record.getSteps()) {
+            test.log(Status.valueOf(step.getStatus().toUpperCase(Locale.ROOT)), step.getDetails());
+            List<Log> logs = test.getModel().getLogs();
+            logs.get(logs.size() - 1).setTimestamp(new Date(step.getTime()));
+        }
+        test.getModel().setStartTime(new Date(record.getStart()));
+        test.getModel().setEndTime(new Date(record.getEnd()));
+    }
+
+    static List<Path> resultFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> file.getFileName().toString().matches("results.*\\.jsonl"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Shard name for result files written without -Dreport.shard, taken from the file name.
+    private static String shardOf(Path file) {
+        String name = file.getFileName().toString().replaceFirst("\\.jsonl$", "");
+        return name.startsWith("results-") ? name.substring("results-".length()) : name;
+    }
+
+    private static class ShardTotals {
+        private int tests;
+        private final Map<String, Integer> statuses = new TreeMap<>();
+        private long start = Long.MAX_VALUE;
+        private long end;
+
+        private void add(TestRecord record) {
+            tests++;
+            statuses.merge(record.getStatus(), 1, Integer::sum);
+            start = Math.min(start, record.getStart());
+            end = Math.max(end, record.getEnd());
+        }
+
+        @Override
+        public String toString() {
+            return tests + " tests " + statuses + " in " + (end - start) / 1000 + " s";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Ends browser sessions, and at suite end makes sure no browser of this JVM is left running.
+//
+// With -Ddriver.quit.async=true quitting happens on virtual threads: driver.quit() can take a second or more,
+// and the worker thread goes on to the next test meanwhile. At most -Ddriver.quit.max-in-flight sessions
+// (default: one per worker thread) are quitting at once; beyond that the worker waits, so a slow machine never
+// piles up closing browsers. At suite end the closer waits for the quits still running, then destroys every
+// driver or browser process started by this JVM that is still alive, such as a Chrome whose chromedriver died
+// or a session whose quit hung.
+public final class SessionCloser {
+
+    public static final boolean ASYNC = TestConfig.getBoolean("driver.quit.async", false);
+
+    private static final int MAX_IN_FLIGHT = Math.max(1, TestConfig.getInt("driver.quit.max-in-flight", ParallelSuiteListener.threadCount()));
+
+    private static final Semaphore IN_FLIGHT = new Semaphore(MAX_IN_FLIGHT);
+
+    private static final ExecutorService CLOSER = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("browser-quit-", 0).factory());
+
+    // Executable names of the processes a session consists of.
+    private static final Pattern BROWSER_PROCESS = Pattern.compile("chromedriver|geckodriver|chrome|chromium|firefox");
+
+    // Driver and browser processes seen below this JVM. A browser outliving its driver is no child of ours
+    // any more, so they are noted while they still are.
+    private static final Set<ProcessHandle> SEEN = ConcurrentHashMap.newKeySet();
+
+    private SessionCloser() {
+    }
+
+    // Quits the session, right away or on a background thread. Only a quit right away can throw.
+    public static void quit(WebDriver driver) {
+        if (!ASYNC) {
+            driver.quit();
+            return;
+        }
+        IN_FLIGHT.acquireUninterruptibly();
+        try {
+            CLOSER.execute(() -> {
+                try {
+                    quitNow(driver);
+                } finally {
+                    IN_FLIGHT.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            IN_FLIGHT.release();
+            quitNow(driver);
+        }
+    }
+
+    // Notes the driver and browser processes of this JVM; called after every new session.
+    public static void trackProcesses() {
+        ProcessHandle.current().descendants().filter(SessionCloser::isBrowserProcess).forEach(SEEN::add);
+    }
+
+    // Waits for the quits still running and destroys the browser processes that are left.
+    public static void shutdown() {
+        try {
+            if (IN_FLIGHT.tryAcquire(MAX_IN_FLIGHT, 30, TimeUnit.SECONDS)) {
+                IN_FLIGHT.release(MAX_IN_FLIGHT);
+            } else {
+                System.out.println("Some browser sessions did not quit within 30 s.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reapOrphans();
+    }
+
+    private static void reapOrphans() {
+        trackProcesses();
+        List<ProcessHandle> left = SEEN.stream().filter(ProcessHandle::isAlive).collect(Collectors.toList());
+        SEEN.clear();
+        if (left.isEmpty()) {
+            return;
+        }
+        System.out.println("Stopping " + left.size() + " browser process(es) left over: "
+                + left.stream().map(process -> process.pid() + " " + name(process)).collect(Collectors.joining(", ")));
+        left.forEach(ProcessHandle::destroy);
+        long deadline = System.currentTimeMillis() + 5000;
+        for (ProcessHandle process : left) {
+            try {
+                process.onExit().get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void quitNow(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            System.out.println("Browser session could not be quit cleanly: " + e.getMessage());
+        }
+    }
+
+    private static boolean isBrowserProcess(ProcessHandle process) {
+        return BROWSER_PROCESS.matcher(name(process)).find();
+    }
+
+    private static String name(ProcessHandle process) {
+        return process.info().command()
+                .map(command -> Paths.get(command).getFileName().toString().toLowerCase(Locale.ROOT))
+                .orElse("");
+    }
+}
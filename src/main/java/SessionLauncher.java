@@ -0,0 +1,137 @@
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Opt-in launcher of browser sessions ahead of the tests (-Ddriver.prewarm=true).
+// Starting Chrome takes a second or two, and in Hooks.setUp the test waits for all of it. With the launcher
+// the first sessions are started on virtual threads while TestNG is still discovering the tests, one per
+// worker thread and browser. Every time a test takes a session a new one is started in the background,
+// so it boots while the tests run. Sessions nobody took are quit at suite end.
+// With the DriverPool a worker only needs a new session now and then, so just one spare is kept per browser.
+public final class SessionLauncher {
+
+    public static final boolean ENABLED = TestConfig.getBoolean("driver.prewarm", false);
+
+    // Sessions started at suite start per browser, by default one per worker thread.
+    // A TestWorker of a distributed run runs one test at a time, so there it is one.
+    private static final int INITIAL = TestConfig.getInt("driver.prewarm.sessions",
+            TestWorker.isRunning() ? 1 : ParallelSuiteListener.threadCount());
+
+    // Sessions kept starting or ready per browser while the tests run.
+    private static final int SPARES = DriverPool.ENABLED ? 1 : INITIAL;
+
+    // Sessions starting or ready per browser, oldest first.
+    private static final Map<String, Queue<CompletableFuture<WebDriver>>> READY = new ConcurrentHashMap<>();
+
+    private static final ExecutorService LAUNCHER = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("browser-launch-", 0).factory());
+
+    private static volatile boolean started;
+    private static volatile boolean closed;
+
+    private SessionLauncher() {
+    }
+
+    // Starts the first sessions as early as possible, from ParallelSuiteListener before the tests are discovered.
+    // A session talking through the asset proxy needs the proxy first, so then it waits for prewarm() in Hooks.
+    public static void prewarmEarly() {
+        if (TestConfig.get("proxy.mode", "off").equalsIgnoreCase("off")) {
+            prewarm();
+        }
+    }
+
+    // Starts the first sessions of every browser of the run, once.
+    public static synchronized void prewarm() {
+        if (!ENABLED || started) {
+            return;
+        }
+        started = true;
+        List<String> browsers = BrowserMatrix.isActive() ? BrowserMatrix.BROWSERS : List.of(DriverFactory.DEFAULT_BROWSER);
+        for (String browser : browsers) {
+            for (int i = 0; i < INITIAL; i++) {
+                launch(browser);
+            }
+        }
+        System.out.println("Starting " + INITIAL + " browser session(s) ahead for " + String.join(", ", browsers) + ".");
+    }
+
+    // Returns a started session of the browser, waiting for one still booting if needed, and starts the next one.
+    // Without the launcher, or when the background start failed, the session is started right here.
+    public static WebDriver take(String browser) {
+        if (!ENABLED) {
+            return DriverFactory.createDriver(browser);
+        }
+        prewarm();
+        CompletableFuture<WebDriver> session = ready(browser).poll();
+        if (ready(browser).size() < SPARES) {
+            launch(browser);
+        }
+        if (session != null) {
+            try {
+                return session.get();
+            } catch (ExecutionException e) {
+                System.out.println("A browser started ahead failed to start, starting one now: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+        }
+        return DriverFactory.createDriver(browser);
+    }
+
+    // Quits the sessions nobody took. Sessions still starting are quit as soon as they are up,
+    // waiting a little for them so no browser outlives the run.
+    public static synchronized void shutdown() {
+        closed = true;
+        List<CompletableFuture<?>> quits = new ArrayList<>();
+        for (Queue<CompletableFuture<WebDriver>> sessions : READY.values()) {
+            CompletableFuture<WebDriver> session;
+            while ((session = sessions.poll()) != null) {
+                // A session that failed to start has nothing to quit.
+                quits.add(session.handle((driver, error) -> {
+                    if (driver != null) {
+                        quit(driver);
+                    }
+                    return null;
+                }));
+            }
+        }
+        try {
+            CompletableFuture.allOf(quits.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            System.out.println("Browsers started ahead are still starting, not waiting for them any longer.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static synchronized void launch(String browser) {
+        if (closed) {
+            return;
+        }
+        ready(browser).add(CompletableFuture.supplyAsync(() -> DriverFactory.createDriver(browser), LAUNCHER));
+    }
+
+    private static Queue<CompletableFuture<WebDriver>> ready(String browser) {
+        return READY.computeIfAbsent(browser, name -> new ConcurrentLinkedQueue<>());
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            SessionCloser.quit(driver);
+        } catch (RuntimeException e) {
+            System.out.println("Browser session could not be quit cleanly: " + e.getMessage());
+        }
+    }
+}
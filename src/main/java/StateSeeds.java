@@ -0,0 +1,104 @@
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Starts a test from a precondition such as "dino is logged in" or "the chips are in the cart"
+// without clicking through the UI every time.
+// The first time a seed is needed in a run without a seed file, the UI setup path runs once and the
+// browser state it leaves behind is recorded to <state.seed.dir>/<name>.json. From then on the recorded
+// state is written straight into storage and the page is reloaded once.
+// Seeds are recorded from the app instead of written by hand, so they follow whatever the shop stores.
+// A seed that does not bring the app into the expected state (the shop keeps that part in memory only,
+// or the seed is outdated) is dropped for the rest of the run and the UI path is used instead.
+public final class StateSeeds {
+
+    // Seeding can be switched off with -Dstate.seed=false, so every test clicks through its own setup again.
+    private static final boolean ENABLED = TestConfig.getBoolean("state.seed", true);
+
+    private static final Path SEED_DIR = Paths.get(TestConfig.get("state.seed.dir", "target/state-seeds"));
+
+    // How long a restored seed gets to show the element proving it worked.
+    private static final Duration VERIFY_TIMEOUT = Duration.ofMillis(TestConfig.getInt("state.seed.verify-timeout-ms", 3000));
+
+    // Seeds of this run, shared by all worker threads.
+    private static final Map<String, BrowserState> SEEDS = new ConcurrentHashMap<>();
+
+    // Seeds that turned out not to work in this run.
+    private static final Set<String> UNUSABLE = ConcurrentHashMap.newKeySet();
+
+    private StateSeeds() {
+    }
+
+    // Brings the session into the state the UI path would leave it in. 'proof' locates an element that is
+    // only displayed once that state is reached, e.g. the name of the logged in user.
+    public static void apply(WebDriver driver, String name, Runnable uiPath, By proof) {
+        BrowserState seed = ENABLED && !UNUSABLE.contains(name) ? load(name) : null;
+        if (seed == null) {
+            runAndRecord(driver, name, uiPath, proof);
+            return;
+        }
+
+        if (seed.restore(driver, proof, VERIFY_TIMEOUT)) {
+            ExtentTestNGITestListener.log(Status.INFO, "Started from state seed '" + name + "'.");
+            return;
+        }
+        UNUSABLE.add(name);
+        System.out.println("State seed '" + name + "' did not work, using the UI path for the rest of the run.");
+        uiPath.run();
+    }
+
+    private static void runAndRecord(WebDriver driver, String name, Runnable uiPath, By proof) {
+        uiPath.run();
+        if (!ENABLED || UNUSABLE.contains(name)) {
+            return;
+        }
+
+        // Only record once the app shows the state, so it had the chance to write it to storage.
+        // When it never shows up the UI path itself is broken; the test's own assertions report that.
+        try {
+            new DomWait(driver, Duration.ofSeconds(10)).untilVisible(proof);
+        } catch (DomWait.ConditionTimeoutException e) {
+            return;
+        }
+        BrowserState state = BrowserState.capture(driver);
+        if (state.isEmpty()) {
+            UNUSABLE.add(name);
+            System.out.println("State seed '" + name + "' cannot be recorded, the shop keeps this state in memory only.");
+            return;
+        }
+        SEEDS.put(name, state);
+        try {
+            state.write(seedFile(name));
+        } catch (IOException e) {
+            System.out.println("State seed '" + name + "' could not be saved: " + e.getMessage());
+        }
+    }
+
+    private static BrowserState load(String name) {
+        return SEEDS.computeIfAbsent(name, key -> {
+            Path file = seedFile(key);
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            try {
+                return BrowserState.read(file);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Ignoring unreadable state seed " + file + ": " + e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private static Path seedFile(String name) {
+        return SEED_DIR.resolve(name + ".json");
+    }
+}
@@ -0,0 +1,112 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Writes the HTML report of a streaming run while its tests are recorded.
+// Each test is appended to the page once, when it is recorded, so no test stays in memory and a flush costs
+// the same after ten tests as after ten thousand. The totals and the summaries go into a footer behind the
+// tests, which every flush writes again in place; the style sheet moves the totals to the top of the page.
+// Not thread-safe, the listener calls it with 'extent' held.
+public final class StreamingReportWriter {
+
+    private static final String STYLE = "body{font-family:sans-serif;margin:2em;display:flex;flex-direction:column}"
+            + "#totals{order:-1}"
+            + "summary{cursor:pointer;padding:.3em}"
+            + "table{border-collapse:collapse;margin:.5em 0 1em 2em}td{padding:.2em .6em;border-bottom:1px solid #ddd}"
+            + ".pass{color:#2e7d32}.fail{color:#c62828}.skip{color:#f9a825}.warning{color:#ef6c00}.info{color:#1565c0}";
+
+    private final FileChannel file;
+
+    // Where the footer starts, right behind the last test written.
+    private long testsEnd;
+
+    private final Map<String, Integer> counts = new TreeMap<>();
+    private long first = Long.MAX_VALUE;
+    private long last;
+
+    // Starts a new, empty report in 'html'.
+    public StreamingReportWriter(Path html) throws IOException {
+        Path absolute = html.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        file = FileChannel.open(absolute, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Test report</title><style>" + STYLE
+                + "</style></head><body><h1>Test report</h1>\n");
+    }
+
+    // Appends the test to the page, in place of the footer if one was written already.
+    public void add(TestRecord record) throws IOException {
+        counts.merge(record.getStatus(), 1, Integer::sum);
+        first = Math.min(first, record.getStart());
+        last = Math.max(last, record.getEnd());
+
+        if (file.size() > testsEnd) {
+            file.truncate(testsEnd);
+        }
+        StringBuilder html = new StringBuilder("<details><summary><span class=\"").append(escape(record.getStatus())).append("\">")
+                .append(escape(record.getStatus())).append("</span> <b>").append(escape(record.getName())).append("</b>");
+        if (record.getDescription() != null) {
+            html.append(" &ndash; ").append(escape(record.getDescription()));
+        }
+        html.append(" (").append(record.getEnd() - record.getStart()).append(" ms)</summary><table>");
+        for (TestRecord.Step step : record.getSteps()) {
+            html.append("<tr><td>").append(time(step.getTime())).append("</td><td class=\"").append(escape(step.getStatus())).append("\">")
+                    .append(escape(step.getStatus())).append("</td><td>").append(escape(step.getDetails())).append("</td></tr>");
+        }
+        append(html.append("</table></details>\n").toString());
+    }
+
+    // Writes the totals, the 'summaries' (title and preformatted text) and the end of the page behind the tests,
+    // replacing the footer of the previous flush.
+    public void writeFooter(List<String[]> summaries) throws IOException {
+        StringBuilder html = new StringBuilder();
+        for (String[] summary : summaries) {
+            html.append("<h2>").append(escape(summary[0])).append("</h2><pre>").append(escape(summary[1])).append("</pre>\n");
+        }
+        html.append("<p id=\"totals\">");
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            html.append("<span class=\"").append(escape(count.getKey())).append("\">").append(count.getValue()).append(' ')
+                    .append(escape(count.getKey())).append("</span> ");
+        }
+        if (last > 0) {
+            html.append("&middot; ").append(time(first)).append(" &ndash; ").append(time(last))
+                    .append(" (").append((last - first) / 1000).append(" s)");
+        }
+        html.append("</p></body></html>\n");
+
+        long end = write(html.toString(), testsEnd);
+        file.truncate(end);
+    }
+
+    private void append(String html) throws IOException {
+        testsEnd = write(html, testsEnd);
+    }
+
+    // Writes 'html' at 'position' and returns the position behind it.
+    private long write(String html, long position) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(html.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            position += file.write(bytes, position);
+        }
+        return position;
+    }
+
+    private static String time(long millis) {
+        return new SimpleDateFormat("HH:mm:ss.SSS").format(new Date(millis));
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,35 @@
+// Small helper for reading run-time switches of the framework.
+// Every setting can be given either as a JVM system property (-Ddriver.pool=true)
+// or as an environment variable with the same name in upper case (DRIVER_POOL=true).
+// System properties win, so a developer can always override what the CI runner exports.
+public final class TestConfig {
+
+    private TestConfig() {
+    }
+
+    // Returns the configured value for the key, or the default when it is not set anywhere.
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(key.toUpperCase().replace('.', '_').replace('-', '_'));
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting '" + key + "' must be a number, but was '" + value + "'", e);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
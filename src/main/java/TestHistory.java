@@ -0,0 +1,206 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// What earlier runs tell about every test: how long it took and how it ended the last few times.
+// Kept in a small JSON file between runs (-Dschedule.history, default test-history.json) so TestScheduler
+// can order the next run. The listener adds every finished test; the file is updated at the end of the run.
+// In a browser matrix every browser has its own entries, the method name followed by ' [browser]'.
+public final class TestHistory {
+
+    public static final Path HISTORY = Paths.get(TestConfig.get("schedule.history", "test-history.json"));
+
+    // Share of the latest run in the stored duration. Older runs fade out, a single slow run does not take over.
+    private static final double LATEST_WEIGHT = 0.5;
+
+    // Number of recent outcomes kept per test.
+    private static final int OUTCOMES = TestConfig.getInt("schedule.history.outcomes", 20);
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, Entry>>() {
+    }.getType();
+
+    // This run per test: milliseconds summed over the invocations of data-driven tests, and their outcomes.
+    private static final Map<String, Entry> CURRENT = new ConcurrentHashMap<>();
+
+    // The file as it was when the run started, loaded on first use.
+    private static Map<String, Entry> history;
+
+    private TestHistory() {
+    }
+
+    public static String key(ITestNGMethod method) {
+        return method.getQualifiedName();
+    }
+
+    // Key of a test as run in one <test>: in a browser matrix followed by ' [browser]', as in the history file.
+    public static String key(ITestNGMethod method, ITestContext context) {
+        return key(method) + suffix(context);
+    }
+
+    // Adds a passed or failed test. Skipped tests say nothing about the test itself and are left out.
+    public static void record(ITestResult result) {
+        long millis = result.getEndMillis() - result.getStartMillis();
+        if (millis >= 0) {
+            Entry latest = new Entry(millis, result.isSuccess() ? Entry.PASSED : Entry.FAILED);
+            CURRENT.merge(key(result.getMethod(), result.getTestContext()), latest, Entry::add);
+        }
+    }
+
+    // The earlier runs by qualified method name. Empty on the first run.
+    public static synchronized Map<String, Entry> history() {
+        if (history == null) {
+            history = Collections.unmodifiableMap(readHistory());
+        }
+        return history;
+    }
+
+    // Writes this run into the history file. Tests of other shards running at the same time keep their entries:
+    // the file is locked, read again and only the tests of this JVM are replaced. Each update starts from the
+    // history of the start of the run, so saving again after more tests is safe.
+    public static synchronized void save() {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        Map<String, Entry> before = history();
+        Path lockFile = HISTORY.resolveSibling(HISTORY.getFileName() + ".lock");
+        try {
+            Files.createDirectories(HISTORY.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, Entry> merged = readHistory();
+                    CURRENT.forEach((test, latest) -> {
+                        Entry earlier = before.get(test);
+                        merged.put(test, earlier == null ? latest.trimmed() : earlier.update(latest));
+                    });
+                    Path temporary = HISTORY.resolveSibling(HISTORY.getFileName() + ".tmp");
+                    Files.writeString(temporary, GSON.toJson(merged), StandardCharsets.UTF_8);
+                    Files.move(temporary, HISTORY, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not update the test history " + HISTORY + ": " + e.getMessage());
+        }
+    }
+
+    // The earlier runs of the tests of one <test> by qualified method name; in a browser matrix those on its browser.
+    public static Map<String, Entry> history(ITestContext context) {
+        String suffix = suffix(context);
+        if (suffix.isEmpty()) {
+            return history();
+        }
+        Map<String, Entry> entries = new TreeMap<>();
+        history().forEach((test, entry) -> {
+            if (test.endsWith(suffix)) {
+                entries.put(test.substring(0, test.length() - suffix.length()), entry);
+            }
+        });
+        return entries;
+    }
+
+    private static String suffix(ITestContext context) {
+        return BrowserMatrix.isActive() ? " [" + BrowserMatrix.browserOf(context) + "]" : "";
+    }
+
+    // A missing or broken file only means the run is scheduled in the default order.
+    private static Map<String, Entry> readHistory() {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!Files.isRegularFile(HISTORY)) {
+            return entries;
+        }
+        try {
+            Map<String, Entry> stored = GSON.fromJson(Files.readString(HISTORY, StandardCharsets.UTF_8), HISTORY_TYPE);
+            if (stored != null) {
+                entries.putAll(stored);
+            }
+        } catch (IOException | JsonParseException e) {
+            System.out.println("Ignoring the test history " + HISTORY + ": " + e.getMessage());
+        }
+        return entries;
+    }
+
+    public static class Entry {
+        private static final char PASSED = 'P';
+        private static final char FAILED = 'F';
+
+        // Smoothed duration in milliseconds.
+        private long millis;
+        // Recent outcomes, oldest first: P for passed, F for failed.
+        private String outcomes = "";
+
+        // Used by Gson when the history is read back.
+        private Entry() {
+        }
+
+        private Entry(long millis, char outcome) {
+            this.millis = millis;
+            this.outcomes = String.valueOf(outcome);
+        }
+
+        private Entry(long millis, String outcomes) {
+            this.millis = millis;
+            this.outcomes = outcomes;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public String getOutcomes() {
+            return outcomes == null ? "" : outcomes;
+        }
+
+        // Estimated chance that the next run fails. Recent outcomes weigh more, each older one 0.8 times the next,
+        // and one imagined pass and failure keep a test that always passed from dropping to zero.
+        public double failureProbability() {
+            String recent = getOutcomes();
+            double weight = 1;
+            double failures = 1;
+            double total = 2;
+            for (int i = recent.length() - 1; i >= 0; i--) {
+                if (recent.charAt(i) == FAILED) {
+                    failures += weight;
+                }
+                total += weight;
+                weight *= 0.8;
+            }
+            return failures / total;
+        }
+
+        private Entry add(Entry other) {
+            return new Entry(millis + other.millis, getOutcomes() + other.getOutcomes());
+        }
+
+        private Entry update(Entry latest) {
+            return new Entry(Math.round(LATEST_WEIGHT * latest.millis + (1 - LATEST_WEIGHT) * millis),
+                    getOutcomes() + latest.getOutcomes()).trimmed();
+        }
+
+        private Entry trimmed() {
+            String recent = getOutcomes();
+            return recent.length() <= OUTCOMES ? this : new Entry(millis, recent.substring(recent.length() - OUTCOMES));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Plain copy of a finished report test, small enough to write as one JSON line and read back later.
+// Used where the report has to outlive the in-memory ExtentReports model.
+public class TestRecord {
+
+    private static final Gson GSON = new Gson();
+
+    private String shard;
+    // Qualified test method, with ' [browser]' in a browser matrix, and, for data-driven tests,
+    // the text form of the parameters; used to find it again.
+    private String method;
+    private String parameters;
+    private String name;
+    private String description;
+    private String status;
+    private long start;
+    private long end;
+    private List<Step> steps = new ArrayList<>();
+
+    public static TestRecord of(ExtentTest test, String shard, String method, String parameters) {
+        Test model = test.getModel();
+        TestRecord record = new TestRecord();
+        record.shard = shard;
+        record.method = method;
+        record.parameters = parameters;
+        record.name = model.getName();
+        record.description = model.getDescription();
+        record.status = model.getStatus().toString().toLowerCase(Locale.ROOT);
+        record.start = model.getStartTime().getTime();
+        record.end = record.start;
+        for (Log log : model.getLogs()) {
+            Step step = new Step();
+            step.status = log.getStatus().toString().toLowerCase(Locale.ROOT);
+            step.details = log.getDetails();
+            step.time = log.getTimestamp().getTime();
+            record.steps.add(step);
+            record.end = Math.max(record.end, step.time);
+        }
+        return record;
+    }
+
+    // A failed test that left no record of its own, e.g. because the JVM running it died.
+    public static TestRecord failed(String method, String shard, String details, long start, long end) {
+        TestRecord record = new TestRecord();
+        record.shard = shard;
+        record.method = method;
+        record.name = method.substring(method.lastIndexOf('.') + 1);
+        record.status = "fail";
+        record.start = start;
+        record.end = end;
+        Step step = new Step();
+        step.status = "fail";
+        step.details = details;
+        step.time = end;
+        record.steps.add(step);
+        return record;
+    }
+
+    public static TestRecord fromJson(String json) {
+        return GSON.fromJson(json, TestRecord.class);
+    }
+
+    public String toJson() {
+        return GSON.toJson(this);
+    }
+
+    // Shard of a split run the test ran in, or null.
+    public String getShard() {
+        return shard;
+    }
+
+    // Qualified name of the test method, with ' [browser]' in a browser matrix, or null in files written
+    // before it was recorded.
+    public String getMethod() {
+        return method;
+    }
+
+    // Parameters of a data-driven test as in Arrays.deepToString, or null for a test without parameters.
+    public String getParameters() {
+        return parameters;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    // Status name as shown in the report: pass, fail, skip, warning, info.
+    public String getStatus() {
+        return status;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public static class Step {
+        private String status;
+        private String details;
+        private long time;
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getDetails() {
+            return details;
+        }
+
+        public long getTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+// Method interceptor registered in testng.xml that decides the order the tests run in (-Dschedule.order):
+//
+// longest-first (default): TestNG hands the tests of a parallel run to its workers in the order returned here,
+// each worker taking the next test when it becomes free. Longest first keeps the long CheckoutTest flows from
+// ending up together at the tail of the run, and the finish time gets close to total time / workers.
+//
+// early-signal: for pull requests, where a red build should be red as soon as possible. Tests that failed
+// recently, or whose class or page objects changed since -Dschedule.changed-since (default origin/main),
+// run first. Each test's chance to fail is divided by its duration, which is the order that finds the first
+// failure soonest on average. With -Dschedule.fail-fast=true the tests still waiting are skipped after the
+// first failure.
+//
+// none: the order of the classes.
+//
+// Durations and outcomes come from TestHistory; tests without history count as the average duration
+// and as a coin toss to fail.
+public class TestScheduler implements IMethodInterceptor {
+
+    private static final String ORDER = TestConfig.get("schedule.order", "longest-first");
+    private static final boolean FAIL_FAST = TestConfig.getBoolean("schedule.fail-fast", false);
+    private static final String CHANGED_SINCE = TestConfig.get("schedule.changed-since", "origin/main");
+    private static final Path TEST_SOURCES = Paths.get(TestConfig.get("schedule.test-sources", "src/test/java"));
+
+    // Weight of a change touching the test: it counts as half a failure on top of its history.
+    private static final double CHANGE_WEIGHT = 0.5;
+
+    private static volatile long started = System.currentTimeMillis();
+    private static final AtomicBoolean FAILED = new AtomicBoolean();
+    private static volatile String abortReason;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        started = System.currentTimeMillis();
+        if (methods.size() < 2) {
+            return methods;
+        }
+        switch (ORDER) {
+            case "longest-first":
+                return longestFirst(methods, context);
+            case "early-signal":
+                return earlySignal(methods, context);
+            case "none":
+                return methods;
+            default:
+                throw new IllegalArgumentException("Setting 'schedule.order' must be longest-first, early-signal or none, but was '" + ORDER + "'");
+        }
+    }
+
+    // Called by the listener for every failed test: notes how long the first failure took and, in fail-fast mode,
+    // stops the tests that have not started yet.
+    public static void testFailed(ITestResult result) {
+        if (!FAILED.compareAndSet(false, true)) {
+            return;
+        }
+        String test = TestHistory.key(result.getMethod());
+        System.out.printf("First failure after %.1f s: %s%n", (System.currentTimeMillis() - started) / 1000.0, test);
+        if (FAIL_FAST) {
+            abortReason = "Skipped by -Dschedule.fail-fast after the failure of " + test;
+        }
+    }
+
+    // Why the remaining tests are skipped, or null while the run goes on.
+    public static String abortReason() {
+        return abortReason;
+    }
+
+    private static List<IMethodInstance> longestFirst(List<IMethodInstance> methods, ITestContext context) {
+        Map<String, TestHistory.Entry> history = TestHistory.history(context);
+        long average = averageMillis(methods, history);
+        if (average < 0) {
+            return methods;
+        }
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // Stable sort: tests of equal length keep the order of the classes.
+        ordered.sort(Comparator.comparingLong((IMethodInstance method) -> estimate(method, history, average)).reversed());
+
+        int workers = context.getCurrentXmlTest().getParallel() == XmlSuite.ParallelMode.NONE
+                ? 1 : Math.max(1, context.getCurrentXmlTest().getThreadCount());
+        long total = 0;
+        for (IMethodInstance method : methods) {
+            total += estimate(method, history, average);
+        }
+        System.out.printf("Scheduling %d tests longest first on %d workers: expected %.1f s (class order %.1f s, ideal %.1f s).%n",
+                methods.size(), workers, makespan(ordered, workers, history, average) / 1000.0,
+                makespan(methods, workers, history, average) / 1000.0, total / 1000.0 / workers);
+        return ordered;
+    }
+
+    private static List<IMethodInstance> earlySignal(List<IMethodInstance> methods, ITestContext context) {
+        Map<String, TestHistory.Entry> history = TestHistory.history(context);
+        long known = averageMillis(methods, history);
+        long average = known < 0 ? 1000 : Math.max(1, known);
+        Set<String> changed = changedClasses();
+
+        Map<IMethodInstance, Double> priority = new HashMap<>();
+        Map<Class<?>, Boolean> touched = new HashMap<>();
+        int touchedTests = 0;
+        int failingTests = 0;
+        for (IMethodInstance method : methods) {
+            TestHistory.Entry entry = history.get(TestHistory.key(method.getMethod()));
+            double failure = entry == null ? 0.5 : entry.failureProbability();
+            if (entry != null && entry.getOutcomes().indexOf('F') >= 0) {
+                failingTests++;
+            }
+            if (touched.computeIfAbsent(method.getMethod().getRealClass(), type -> isTouched(type, changed))) {
+                failure = 1 - (1 - failure) * (1 - CHANGE_WEIGHT);
+                touchedTests++;
+            }
+            priority.put(method, failure / Math.max(1, estimate(method, history, average)));
+        }
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingDouble((IMethodInstance method) -> priority.get(method)).reversed());
+        System.out.println("Scheduling " + methods.size() + " tests for an early signal: " + touchedTests
+                + " touched by changes since " + CHANGED_SINCE + ", " + failingTests + " with recent failures"
+                + (FAIL_FAST ? ", stopping at the first failure." : "."));
+        return ordered;
+    }
+
+    // Average known duration of these tests, or -1 when none of them ran before.
+    private static long averageMillis(List<IMethodInstance> methods, Map<String, TestHistory.Entry> history) {
+        long known = 0;
+        int knownCount = 0;
+        for (IMethodInstance method : methods) {
+            TestHistory.Entry entry = history.get(TestHistory.key(method.getMethod()));
+            if (entry != null) {
+                known += entry.getMillis();
+                knownCount++;
+            }
+        }
+        return knownCount == 0 ? -1 : known / knownCount;
+    }
+
+    private static long estimate(IMethodInstance method, Map<String, TestHistory.Entry> history, long average) {
+        TestHistory.Entry entry = history.get(TestHistory.key(method.getMethod()));
+        return entry == null ? average : entry.getMillis();
+    }
+
+    // Finish time of the run when every test goes to the worker that becomes free first.
+    private static long makespan(List<IMethodInstance> order, int workers, Map<String, TestHistory.Entry> history, long average) {
+        PriorityQueue<Long> busyUntil = new PriorityQueue<>();
+        for (int i = 0; i < workers; i++) {
+            busyUntil.add(0L);
+        }
+        long end = 0;
+        for (IMethodInstance method : order) {
+            long finish = busyUntil.poll() + estimate(method, history, average);
+            busyUntil.add(finish);
+            end = Math.max(end, finish);
+        }
+        return end;
+    }
+
+    // A test class is touched when it changed itself, or its source mentions a class that changed (its page objects).
+    private static boolean isTouched(Class<?> testClass, Set<String> changed) {
+        if (changed.contains(testClass.getSimpleName())) {
+            return true;
+        }
+        Path source = TEST_SOURCES.resolve(testClass.getName().replace('.', '/') + ".java");
+        if (changed.isEmpty() || !Files.isRegularFile(source)) {
+            return false;
+        }
+        try {
+            String code = Files.readString(source, StandardCharsets.UTF_8);
+            for (String type : changed) {
+                if (Pattern.compile("\\b" + Pattern.quote(type) + "\\b").matcher(code).find()) {
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read " + source + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Simple names of the Java classes changed since the branch left CHANGED_SINCE, committed or not,
+    // and of new files not added yet. Empty when git or the base is not available.
+    private static Set<String> changedClasses() {
+        Set<String> classes = new LinkedHashSet<>();
+        List<String> base = git("merge-base", CHANGED_SINCE, "HEAD");
+        if (base.isEmpty()) {
+            System.out.println("Cannot find " + CHANGED_SINCE + " in git; ordering by test history only.");
+            return classes;
+        }
+        List<String> files = new ArrayList<>(git("diff", "--name-only", base.get(0)));
+        files.addAll(git("ls-files", "--others", "--exclude-standard"));
+        for (String file : files) {
+            if (file.endsWith(".java")) {
+                String name = file.substring(file.lastIndexOf('/') + 1);
+                classes.add(name.substring(0, name.length() - ".java".length()));
+            }
+        }
+        return classes;
+    }
+
+    // Output lines of a git command, or nothing when it fails.
+    private static List<String> git(String... arguments) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(arguments));
+        try {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            String output;
+            try (InputStream out = process.getInputStream()) {
+                output = new String(out.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroy();
+                return List.of();
+            }
+            return output.lines().filter(line -> !line.isBlank()).map(String::trim).toList();
+        } catch (IOException e) {
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Worker JVM of a distributed run. Connects to the DistributedRun coordinator, asks it for one test at a time,
+// runs it as a suite of its own and sends the result back. Browsers, the local shop and the asset proxy of
+// the worker stay up between tests and are released when the coordinator has no more work.
+//
+// The coordinator starts its local workers itself. To add a worker from another machine, with the same
+// build on its class path:   java TestWorker <coordinator host>:<port> [name]
+public final class TestWorker {
+
+    private static volatile boolean running;
+
+    private final String name;
+    private final BufferedReader in;
+    private final PrintWriter out;
+
+    private TestWorker(String name, Socket socket) throws IOException {
+        this.name = name;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || !args[0].contains(":")) {
+            System.out.println("Usage: TestWorker <coordinator host>:<port> [name]");
+            System.exit(2);
+        }
+        String host = args[0].substring(0, args[0].lastIndexOf(':'));
+        int port = Integer.parseInt(args[0].substring(args[0].lastIndexOf(':') + 1));
+        String name = args.length > 1 ? args[1] : InetAddress.getLocalHost().getHostName() + "-" + ProcessHandle.current().pid();
+
+        running = true;
+        try (Socket socket = new Socket(host, port)) {
+            new TestWorker(name, socket).work();
+        } finally {
+            running = false;
+            Hooks.releaseSuiteResources();
+            ExtentTestNGITestListener.writeReport();
+        }
+        System.exit(0);
+    }
+
+    // True inside a worker JVM, where suites end after every test but the browsers have to stay.
+    public static boolean isRunning() {
+        return running;
+    }
+
+    private void work() throws IOException {
+        send(DistributedRun.HELLO + " " + name);
+        ExtentTestNGITestListener.setRecordSink(record -> send(DistributedRun.RESULT + " " + record.toJson()));
+        System.out.println("Worker " + name + " (" + ManagementFactory.getRuntimeMXBean().getName() + ") connected.");
+        while (true) {
+            send(DistributedRun.NEXT);
+            String line = in.readLine();
+            if (line == null || !line.startsWith(DistributedRun.RUN + " ")) {
+                break;
+            }
+            run(line.substring(DistributedRun.RUN.length() + 1));
+        }
+        ExtentTestNGITestListener.setRecordSink(null);
+    }
+
+    // Runs one test method, given as Class.method, the way testng.xml would but on its own.
+    private static void run(String test) {
+        int dot = test.lastIndexOf('.');
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Distributed worker");
+        XmlTest xmlTest = new XmlTest(suite);
+        xmlTest.setName(test);
+        XmlClass xmlClass = new XmlClass(test.substring(0, dot));
+        xmlClass.getIncludedMethods().add(new XmlInclude(test.substring(dot + 1)));
+        xmlTest.getXmlClasses().add(xmlClass);
+
+        TestNG testng = new TestNG();
+        testng.setXmlSuites(List.of(suite));
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.run();
+    }
+
+    // The results are sent from the report writer thread and the requests from this one.
+    private synchronized void send(String line) {
+        out.println(line);
+    }
+}
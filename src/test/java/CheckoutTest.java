@@ -2,9 +2,7 @@ import com.aventstack.extentreports.Status;
 import com.google.gson.internal.bind.util.ISO8601Utils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
@@ -24,15 +22,12 @@ import static org.testng.Assert.*;
 // By extending Hooks, CheckoutTest inherits the setup and teardown methods for WebDriver.
 public class CheckoutTest extends Hooks {
 
-    // Declaring a public variable of type CheckoutPage named 'checkoutPage'.
-    // This will be used to interact with the CheckoutPage object during the tests.
-    public CheckoutPage checkoutPage;
+    // Declaring the page objects of the current worker thread.
+    // TestNG shares one instance of this class between the threads of a parallel run,
+    // so every thread keeps its own page objects and soft assertions.
+    private final ThreadLocal<CheckoutPage> checkoutPages = new ThreadLocal<>();
 
-    // Declaring a public variable of type WebDriverWait named 'wait'.
-    // WebDriverWait is used to explicitly wait for certain conditions or elements during test execution.
-    public WebDriverWait wait;
-
-    public SoftAssert softAssert;
+    private final ThreadLocal<SoftAssert> softAsserts = new ThreadLocal<>();
 
     // Method annotated with @BeforeMethod, indicating that it will run before each test method.
     // This method is used to set up the page objects and other necessary components before each test.
@@ -41,432 +36,409 @@ public class CheckoutTest extends Hooks {
 
         // Initializing the checkoutPage object with the current WebDriver instance.
         // This allows the test methods to interact with elements on the checkout page.
-        checkoutPage = new CheckoutPage(driver);
+        checkoutPages.set(new CheckoutPage(getDriver()));
+
+        softAsserts.set(new SoftAssert());
+    }
+
+    public CheckoutPage checkoutPage() {
+        return checkoutPages.get();
+    }
 
-        // Initializing the WebDriverWait object with the current WebDriver instance and a timeout of 30 seconds.
-        // This wait will be used to pause the execution until certain conditions are met or elements are found.
-        wait = new WebDriverWait(driver, 30);
-        softAssert = new SoftAssert();
+    public SoftAssert softAssert() {
+        return softAsserts.get();
     }
 
     @Test(description = "Purchasing a simple product from a guest user")
     public void checkoutTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().addAwesomeChipsToCart();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product " + checkoutPage.getAwesomeChipsProduct().getText() + " is found in the shopping cart.");
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product " + checkoutPage().getAwesomeChipsProduct().getText() + " is found in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " is not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeChipsProduct().getText() + " is not found");
         }
 
-        checkoutPage.clickCheckoutButton();
-        checkoutPage.addDeliveryDetailsToOrder();
-        checkoutPage.clickContinueCheckoutButton();
-        checkoutPage.clickCompleteYourOrderButton();
+        checkoutPage().clickCheckoutButton();
+        checkoutPage().addDeliveryDetailsToOrder();
+        checkoutPage().clickContinueCheckoutButton();
+        checkoutPage().clickCompleteYourOrderButton();
 
-        if (checkoutPage.getSuccessMessage().getText().equals("Order complete")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The order was placed successfully.");
+        if (checkoutPage().getSuccessMessage().getText().equals("Order complete")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The order was placed successfully.");
         } else {
-            softAssert.fail("The order was not successfully placed.");
+            softAssert().fail("The order was not successfully placed.");
         }
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 
     @Test(description = "Adding a product to wishlist")
     public void wishlistTest() {
-        checkoutPage.addProductToWishlist();
+        checkoutPage().addProductToWishlist();
 
-        if (checkoutPage.getShoppingCartBadge().getText().equals("1")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Shopping Cart badge was updated with success.");
+        if (checkoutPage().getShoppingCartBadge().getText().equals("1")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Shopping Cart badge was updated with success.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly");
+            softAssert().fail("Shopping cart was not updated correctly");
         }
 
-        checkoutPage.clickShoppingCartBadge();
-        assertEquals(checkoutPage.getAwesomeChipsProduct().getText(), "Awesome Granite Chips", "The product " + checkoutPage.getAwesomeChipsProduct().getText() + " is not displayed in the Wishlist.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The product " + checkoutPage.getAwesomeChipsProduct().getText() + " was found in the Wishlist.");
-        softAssert.assertAll();
+        checkoutPage().clickShoppingCartBadge();
+        assertEquals(checkoutPage().getAwesomeChipsProduct().getText(), "Awesome Granite Chips", "The product " + checkoutPage().getAwesomeChipsProduct().getText() + " is not displayed in the Wishlist.");
+        ExtentTestNGITestListener.log(Status.PASS, "The product " + checkoutPage().getAwesomeChipsProduct().getText() + " was found in the Wishlist.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Removing a product from wishlist")
     public void removeProductFromWishlist() {
-        checkoutPage.addProductToWishlist();
+        checkoutPage().seedAwesomeChipsInWishlist();
 
-        if (checkoutPage.getShoppingCartBadge().getText().equals("1")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Shopping Cart badge was updated with success.");
+        if (checkoutPage().getShoppingCartBadge().getText().equals("1")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Shopping Cart badge was updated with success.");
         } else {
-            softAssert.fail("Shopping cart badge was not updated correctly.");
+            softAssert().fail("Shopping cart badge was not updated correctly.");
         }
 
-        checkoutPage.clickShoppingCartBadge();
-        checkoutPage.clickBrokenHeartIcon();
+        checkoutPage().clickShoppingCartBadge();
+        checkoutPage().clickBrokenHeartIcon();
 
-        try {
-            if (checkoutPage.getAwesomeChipsProduct().isDisplayed()) {
-                Assert.fail("Element is still present.");
-            }
-        } catch (NoSuchElementException e) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Awesome Granite Product was removed from the Wishlist.");
-            Assert.assertTrue(true, "Element is not present as expected");
-        }
+        checkoutPage().assertAbsent(checkoutPage().getAwesomeChipsProductLocator(), "'Awesome Granite Chips' is still present in the Wishlist.");
+        ExtentTestNGITestListener.log(Status.PASS, "Awesome Granite Product was removed from the Wishlist.");
 
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 
     @Test(description = "Adding a product to the shopping cart")
     public void addingProductTosShoppingCartTest() {
-        checkoutPage.clickIncredibleConcreteLink();
-        checkoutPage.clickCartIcon();
-        checkoutPage.clickShoppingCartIcon();
+        checkoutPage().clickIncredibleConcreteLink();
+        checkoutPage().clickCartIcon();
+        checkoutPage().clickShoppingCartIcon();
 
-        if (checkoutPage.getValidationCart().getText().equals("Your cart")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, checkoutPage.getValidationCart().getText() + " is displayed.");
+        if (checkoutPage().getValidationCart().getText().equals("Your cart")) {
+            ExtentTestNGITestListener.log(Status.PASS, checkoutPage().getValidationCart().getText() + " is displayed.");
         } else {
-            softAssert.fail(checkoutPage.getValidationCart().getText() + " is not displayed.");
+            softAssert().fail(checkoutPage().getValidationCart().getText() + " is not displayed.");
         }
 
-        assertEquals(checkoutPage.getIncredibleConcreteProduct().getText(), "Incredible Concrete Hat", "'Incredible Concrete Hat' is not displayed to the shopping cart");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The Incredible Concrete Hat product is displayed on the shopping cart.");
-        softAssert.assertAll();
+        assertEquals(checkoutPage().getIncredibleConcreteProduct().getText(), "Incredible Concrete Hat", "'Incredible Concrete Hat' is not displayed to the shopping cart");
+        ExtentTestNGITestListener.log(Status.PASS, "The Incredible Concrete Hat product is displayed on the shopping cart.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Removing a product from the shopping cart")
     public void removingProductFromShoppingCartTest() {
-        checkoutPage.clickIncredibleConcreteLink();
-        checkoutPage.clickCartIcon();
-        checkoutPage.clickShoppingCartIcon();
+        checkoutPage().clickIncredibleConcreteLink();
+        checkoutPage().clickCartIcon();
+        checkoutPage().clickShoppingCartIcon();
 
-        if (checkoutPage.getIncredibleConcreteProduct().getText().equals("Incredible Concrete Hat")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, checkoutPage.getIncredibleConcreteProduct().getText() + " was successfully added to the cart.");
+        if (checkoutPage().getIncredibleConcreteProduct().getText().equals("Incredible Concrete Hat")) {
+            ExtentTestNGITestListener.log(Status.PASS, checkoutPage().getIncredibleConcreteProduct().getText() + " was successfully added to the cart.");
         } else {
-            softAssert.fail(checkoutPage.getIncredibleConcreteProduct().getText() + " is not found in the cart.");
+            softAssert().fail(checkoutPage().getIncredibleConcreteProduct().getText() + " is not found in the cart.");
         }
 
-        checkoutPage.clickTrashElement();
-        assertEquals(checkoutPage.getValidationDeleting().getText(), "How about adding some products in your cart?", "'Incredible Concrete Hat' was not successfully removed from the cart.");
-        assertEquals(checkoutPage.getValidationCart().getText(), "Your cart", "The user is not directed to the Cart after deleting a product.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "'Incredible Concrete Hat' product was deleted and it's not displayed any more.");
-        softAssert.assertAll();
+        checkoutPage().clickTrashElement();
+        assertEquals(checkoutPage().getValidationDeleting().getText(), "How about adding some products in your cart?", "'Incredible Concrete Hat' was not successfully removed from the cart.");
+        assertEquals(checkoutPage().getValidationCart().getText(), "Your cart", "The user is not directed to the Cart after deleting a product.");
+        ExtentTestNGITestListener.log(Status.PASS, "'Incredible Concrete Hat' product was deleted and it's not displayed any more.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Increase the amount of a product")
     public void increasedAmountTest() {
-        checkoutPage.addProductToCart();
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The price of the product is: " + checkoutPage.productPrice());
-        double expectedTotal = checkoutPage.productPrice() * 2;
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The price of the product after quantity increase should be: " + expectedTotal);
-        checkoutPage.clickPlusOne();
-        assertEquals(checkoutPage.productPrice(), expectedTotal, "The total price of the increased amount is not displayed correctly.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The price of the product matches the expected total " + checkoutPage.productPrice() + " = " + expectedTotal);
+        checkoutPage().addProductToCart();
+        ExtentTestNGITestListener.log(Status.INFO, "The price of the product is: " + checkoutPage().productPrice());
+        double expectedTotal = checkoutPage().productPrice() * 2;
+        ExtentTestNGITestListener.log(Status.INFO, "The price of the product after quantity increase should be: " + expectedTotal);
+        checkoutPage().clickPlusOne();
+        assertEquals(checkoutPage().productPrice(), expectedTotal, "The total price of the increased amount is not displayed correctly.");
+        ExtentTestNGITestListener.log(Status.PASS, "The price of the product matches the expected total " + checkoutPage().productPrice() + " = " + expectedTotal);
     }
 
     @Test(description = "Calculate the Total price for a product")
     public void totalPriceForAProduct() {
-        checkoutPage.addProductToCart();
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The price of the product is: " + checkoutPage.productPrice());
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The tax price of the product is: " + checkoutPage.taxPrice());
-        double expectedTotal = checkoutPage.productPrice() + checkoutPage.taxPrice();
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The actual total price of the product is: " + checkoutPage.totalPrice());
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The expected total price of the product is: " + expectedTotal);
-        assertEquals(checkoutPage.totalPrice(), expectedTotal, "The total price of the product (price + tax price) is not displayed correctly.");
+        checkoutPage().addProductToCart();
+        ExtentTestNGITestListener.log(Status.INFO, "The price of the product is: " + checkoutPage().productPrice());
+        ExtentTestNGITestListener.log(Status.INFO, "The tax price of the product is: " + checkoutPage().taxPrice());
+        double expectedTotal = checkoutPage().productPrice() + checkoutPage().taxPrice();
+        ExtentTestNGITestListener.log(Status.INFO, "The actual total price of the product is: " + checkoutPage().totalPrice());
+        ExtentTestNGITestListener.log(Status.INFO, "The expected total price of the product is: " + expectedTotal);
+        assertEquals(checkoutPage().totalPrice(), expectedTotal, "The total price of the product (price + tax price) is not displayed correctly.");
     }
 
     @Test(description = "Calculate the Total price for two a products")
     public void totalPriceForTwoProducts() {
-        checkoutPage.addProductToCart();
+        checkoutPage().addProductToCart();
 
-        if (checkoutPage.getAwesomeShirt().getText().equals("Awesome Soft Shirt")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product added to the cart " + checkoutPage.getAwesomeShirt().getText());
+        if (checkoutPage().getAwesomeShirt().getText().equals("Awesome Soft Shirt")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product added to the cart " + checkoutPage().getAwesomeShirt().getText());
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeShirt().getText() + "is not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeShirt().getText() + "is not found");
         }
 
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The price of the product is: " + checkoutPage.productPriceShirt());
-        checkoutPage.clickHomepageButton();
-        checkoutPage.addAwesomeChipsToCart();
+        ExtentTestNGITestListener.log(Status.INFO, "The price of the product is: " + checkoutPage().productPriceShirt());
+        checkoutPage().clickHomepageButton();
+        checkoutPage().addAwesomeChipsToCart();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product added to the cart " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product added to the cart " + checkoutPage().getAwesomeChipsProduct().getText());
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + "is not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeChipsProduct().getText() + "is not found");
         }
 
-        checkoutPage.clickShoppingCartIcon();
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The price of the product is: " + checkoutPage.productPriceChips());
-        double expectedTotal = checkoutPage.productPriceShirt() + checkoutPage.productPriceChips();
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The actual total of the products is: " + checkoutPage.productPrice());
-        ExtentTestNGITestListener.getTest().log(Status.INFO, "The expected total of the products is: " + (checkoutPage.productPriceShirt() + checkoutPage.productPriceChips()));
-        assertEquals(checkoutPage.productPrice(), expectedTotal, "The total price of the two products: " + checkoutPage.getAwesomeShirt().getText() + " and " + checkoutPage.getAwesomeChipsProduct().getText() + " is not displayed correctly.");
-        softAssert.assertAll();
+        checkoutPage().clickShoppingCartIcon();
+        ExtentTestNGITestListener.log(Status.INFO, "The price of the product is: " + checkoutPage().productPriceChips());
+        double expectedTotal = checkoutPage().productPriceShirt() + checkoutPage().productPriceChips();
+        ExtentTestNGITestListener.log(Status.INFO, "The actual total of the products is: " + checkoutPage().productPrice());
+        ExtentTestNGITestListener.log(Status.INFO, "The expected total of the products is: " + (checkoutPage().productPriceShirt() + checkoutPage().productPriceChips()));
+        assertEquals(checkoutPage().productPrice(), expectedTotal, "The total price of the two products: " + checkoutPage().getAwesomeShirt().getText() + " and " + checkoutPage().getAwesomeChipsProduct().getText() + " is not displayed correctly.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Purchase a product from the Wishlist")
     public void purchaseFromWishlistTest() {
-        checkoutPage.addProductToWishlist();
+        checkoutPage().addProductToWishlist();
 
-        if (checkoutPage.getShoppingCartBadge().getText().equals("1")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Wishlist Badge was updated with success, the product 'Awesome Granite Chips' was added to the Wishlist.");
+        if (checkoutPage().getShoppingCartBadge().getText().equals("1")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Wishlist Badge was updated with success, the product 'Awesome Granite Chips' was added to the Wishlist.");
         } else {
-            softAssert.fail("The Wishlist Badge was not updated correctly.");
+            softAssert().fail("The Wishlist Badge was not updated correctly.");
         }
 
-        checkoutPage.clickHomepageButton();
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().clickHomepageButton();
+        checkoutPage().addAwesomeChipsToCart();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product added successfully in the Shopping cart: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product added successfully in the Shopping cart: " + checkoutPage().getAwesomeChipsProduct().getText());
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product: " + checkoutPage.getAwesomeChipsProduct().getText() + " is not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product: " + checkoutPage().getAwesomeChipsProduct().getText() + " is not found");
         }
 
-        checkoutPage.clickCheckoutButton();
+        checkoutPage().clickCheckoutButton();
 
-        if (checkoutPage.getCheckoutPage().getText().equals("Your information")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "After clicking the Checkout button, the Checkout Page is displayed.");
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "After clicking the Checkout button, the Checkout Page is displayed.");
         } else {
-            softAssert.fail("The Checkout Page is not displayed even if the user clicks on Checkout button.");
+            softAssert().fail("The Checkout Page is not displayed even if the user clicks on Checkout button.");
         }
 
-        checkoutPage.addDeliveryDetailsToOrder();
-        checkoutPage.clickContinueCheckoutButton();
+        checkoutPage().addDeliveryDetailsToOrder();
+        checkoutPage().clickContinueCheckoutButton();
 
-        if (checkoutPage.getOrderSummary().getText().equals("Order summary")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "After clicking Continue checkout button, 'Order summary' is displayed.");
+        if (checkoutPage().getOrderSummary().getText().equals("Order summary")) {
+            ExtentTestNGITestListener.log(Status.PASS, "After clicking Continue checkout button, 'Order summary' is displayed.");
         } else {
-            softAssert.fail("The Order summary page was not successfully displayed.");
+            softAssert().fail("The Order summary page was not successfully displayed.");
         }
 
-        checkoutPage.clickCompleteYourOrderButton();
-        assertEquals(checkoutPage.getSuccessMessage().getText(), "Order complete", "No confirmation message for completing order displayed.");
-        assertEquals(checkoutPage.getOrderConfirmation().getText(), "Thank you for your order!", "The order wasn't successfully placed.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The order has been successfully placed.");
-        softAssert.assertAll();
+        checkoutPage().clickCompleteYourOrderButton();
+        assertEquals(checkoutPage().getSuccessMessage().getText(), "Order complete", "No confirmation message for completing order displayed.");
+        assertEquals(checkoutPage().getOrderConfirmation().getText(), "Thank you for your order!", "The order wasn't successfully placed.");
+        ExtentTestNGITestListener.log(Status.PASS, "The order has been successfully placed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Verify 'Continue shopping' functionality")
     public void continueShoppingTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().seedAwesomeChipsInCart();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product " + checkoutPage.getAwesomeChipsProduct().getText() + " is found in the shopping cart.");
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product " + checkoutPage().getAwesomeChipsProduct().getText() + " is found in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + "is not found.");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeChipsProduct().getText() + "is not found.");
         }
 
-        if (checkoutPage.getValidationCart().getText().equals("Your cart")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, checkoutPage.getValidationCart().getText() + " is displayed.");
+        if (checkoutPage().getValidationCart().getText().equals("Your cart")) {
+            ExtentTestNGITestListener.log(Status.PASS, checkoutPage().getValidationCart().getText() + " is displayed.");
         } else {
-            softAssert.fail(checkoutPage.getValidationCart().getText() + " is not displayed.");
+            softAssert().fail(checkoutPage().getValidationCart().getText() + " is not displayed.");
         }
 
-        checkoutPage.clickContinueShoppingButton();
-        assertEquals(checkoutPage.getProductsConfirmation().getText(), "Products", "The 'Continue button' does not direct the user to Products page");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "Products page is displayed and the user is able to continue shopping.");
-        softAssert.assertAll();
+        checkoutPage().clickContinueShoppingButton();
+        assertEquals(checkoutPage().getProductsConfirmation().getText(), "Products", "The 'Continue button' does not direct the user to Products page");
+        ExtentTestNGITestListener.log(Status.PASS, "Products page is displayed and the user is able to continue shopping.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Cancel the order from the Checkout page")
     public void cancelTheOrderTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().seedAwesomeChipsInCart();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product " + checkoutPage.getAwesomeChipsProduct().getText() + " is found in the shopping cart.");
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product " + checkoutPage().getAwesomeChipsProduct().getText() + " is found in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + "is not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeChipsProduct().getText() + "is not found");
         }
 
-        checkoutPage.clickCheckoutButton();
+        checkoutPage().clickCheckoutButton();
 
-        if (checkoutPage.getCheckoutPage().getText().equals("Your information")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "After clicking the Checkout button, the Checkout Page is displayed.");
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "After clicking the Checkout button, the Checkout Page is displayed.");
         } else {
-            softAssert.fail("The Checkout Page is not displayed even if the user clicks on Checkout button.");
+            softAssert().fail("The Checkout Page is not displayed even if the user clicks on Checkout button.");
         }
 
-        checkoutPage.clickCancelButton();
+        checkoutPage().clickCancelButton();
 
-        if (checkoutPage.getValidationCart().getText().equals("Your cart")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, checkoutPage.getValidationCart().getText() + " is displayed.");
+        if (checkoutPage().getValidationCart().getText().equals("Your cart")) {
+            ExtentTestNGITestListener.log(Status.PASS, checkoutPage().getValidationCart().getText() + " is displayed.");
         } else {
-            softAssert.fail(checkoutPage.getValidationCart().getText() + " is not displayed.");
+            softAssert().fail(checkoutPage().getValidationCart().getText() + " is not displayed.");
         }
-        assertEquals(checkoutPage.getAwesomeChipsProduct().getText(), "Awesome Granite Chips", "The selected product " + checkoutPage.getAwesomeChipsProduct().getText() + " is not displayed to the Shopping cart as expected.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The 'Awesome Granite Chips' product is displayed to the Shopping Cart page again.");
-        softAssert.assertAll();
+        assertEquals(checkoutPage().getAwesomeChipsProduct().getText(), "Awesome Granite Chips", "The selected product " + checkoutPage().getAwesomeChipsProduct().getText() + " is not displayed to the Shopping cart as expected.");
+        ExtentTestNGITestListener.log(Status.PASS, "The 'Awesome Granite Chips' product is displayed to the Shopping Cart page again.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Clicking reset when a product is added to the shopping cart")
     public void shoppingCartResetTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().seedAwesomeChipsInCart();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product found " + checkoutPage().getAwesomeChipsProduct().getText());
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeChipsProduct().getText() + " was not found");
         }
 
-        checkoutPage.clickResetButton();
+        checkoutPage().clickResetButton();
 
-        try {
-            if (checkoutPage.getAwesomeChipsProduct().isDisplayed()) {
-                Assert.fail("Element is still present.");
-            }
-        } catch (NoSuchElementException e) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The page was reset, the product was removed from the shopping cart.");
-            Assert.assertTrue(true, "Element is not present as expected");
-        }
+        checkoutPage().assertAbsent(checkoutPage().getAwesomeChipsProductLocator(), "'Awesome Granite Chips' is still present in the shopping cart after reset.");
+        ExtentTestNGITestListener.log(Status.PASS, "The page was reset, the product was removed from the shopping cart.");
 
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 
     @Test(description = "Clicking reset when a product is added to the wishlist")
     public void wishlistResetTest() {
-        checkoutPage.addProductToWishlist();
-        checkoutPage.clickWishlistButton();
+        checkoutPage().seedAwesomeChipsInWishlist();
+        checkoutPage().clickWishlistButton();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found in the Wishlist: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
+            ExtentTestNGITestListener.log(Status.PASS, "Product found in the Wishlist: " + checkoutPage().getAwesomeChipsProduct().getText());
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("Shopping cart was not updated correctly, the product " + checkoutPage().getAwesomeChipsProduct().getText() + " was not found");
         }
 
-        checkoutPage.clickResetButton();
+        checkoutPage().clickResetButton();
 
-        try {
-            if (checkoutPage.getAwesomeChipsProduct().isDisplayed()) {
-                Assert.fail("Element is still present.");
-            }
-        } catch (NoSuchElementException e) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The page was reset, the product was removed from the wishlist.");
-            Assert.assertTrue(true, "Element is not present in the Wishlist as expected");
-        }
+        checkoutPage().assertAbsent(checkoutPage().getAwesomeChipsProductLocator(), "'Awesome Granite Chips' is still present in the Wishlist after reset.");
+        ExtentTestNGITestListener.log(Status.PASS, "The page was reset, the product was removed from the wishlist.");
 
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 
     @Test(description = "Validation of 'First Name' field on Checkout page")
     public void firstNameValidationTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().forkAtCheckoutForm();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found in the shopping cart: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The Checkout Page is displayed with 'Awesome Granite Chips' in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("The Checkout Page is not displayed.");
         }
 
-        checkoutPage.clickCheckoutButton();
-        checkoutPage.setFirstNameField("");
-        checkoutPage.setLastNameField("Amariei");
-        checkoutPage.setAddressField("Acasa la Floresti");
-        checkoutPage.clickContinueCheckoutButton();
-        Assert.assertEquals(checkoutPage.getValidationFirstField().getText(), "First Name is required", "When the required field 'First name' is submitted empty, no error is returned.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "When 'First Name' field is submitted empty, the error: '" + checkoutPage.getValidationFirstField().getText() + "' is displayed.");
-        softAssert.assertAll();
+        checkoutPage().setFirstNameField("");
+        checkoutPage().setLastNameField("Amariei");
+        checkoutPage().setAddressField("Acasa la Floresti");
+        checkoutPage().clickContinueCheckoutButton();
+        Assert.assertEquals(checkoutPage().getValidationFirstField().getText(), "First Name is required", "When the required field 'First name' is submitted empty, no error is returned.");
+        ExtentTestNGITestListener.log(Status.PASS, "When 'First Name' field is submitted empty, the error: '" + checkoutPage().getValidationFirstField().getText() + "' is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Validation of 'Last Name' field on Checkout page")
     public void lastNameValidationTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().forkAtCheckoutForm();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found in the shopping cart: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The Checkout Page is displayed with 'Awesome Granite Chips' in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("The Checkout Page is not displayed.");
         }
 
-        checkoutPage.clickCheckoutButton();
-        checkoutPage.setFirstNameField("Vasile");
-        checkoutPage.setLastNameField("");
-        checkoutPage.setAddressField("Casa dulce casa");
-        checkoutPage.clickContinueCheckoutButton();
-        Assert.assertEquals(checkoutPage.getValidationLastField().getText(), "Last Name is required", "When the required field 'Last Name' is submitted empty, no error is returned.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "When 'Last Name' field is submitted empty, the error: '" + checkoutPage.getValidationLastField().getText() + "' is displayed.");
-        softAssert.assertAll();
+        checkoutPage().setFirstNameField("Vasile");
+        checkoutPage().setLastNameField("");
+        checkoutPage().setAddressField("Casa dulce casa");
+        checkoutPage().clickContinueCheckoutButton();
+        Assert.assertEquals(checkoutPage().getValidationLastField().getText(), "Last Name is required", "When the required field 'Last Name' is submitted empty, no error is returned.");
+        ExtentTestNGITestListener.log(Status.PASS, "When 'Last Name' field is submitted empty, the error: '" + checkoutPage().getValidationLastField().getText() + "' is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Validation of 'Address' field on Checkout page")
     public void addressValidationTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().forkAtCheckoutForm();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found in the shopping cart: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The Checkout Page is displayed with 'Awesome Granite Chips' in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("The Checkout Page is not displayed.");
         }
 
-        checkoutPage.clickCheckoutButton();
-        checkoutPage.setFirstNameField("Vasile");
-        checkoutPage.setLastNameField("Ionache");
-        checkoutPage.setAddressField("");
-        checkoutPage.clickContinueCheckoutButton();
-        Assert.assertEquals(checkoutPage.getValidationAddressField().getText(), "Address is required", "When the required field 'Address' is submitted empty, no error is returned.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "When the required 'Address' field is left empty, the error: '" + checkoutPage.getValidationAddressField().getText() + "' is displayed.");
-        softAssert.assertAll();
+        checkoutPage().setFirstNameField("Vasile");
+        checkoutPage().setLastNameField("Ionache");
+        checkoutPage().setAddressField("");
+        checkoutPage().clickContinueCheckoutButton();
+        Assert.assertEquals(checkoutPage().getValidationAddressField().getText(), "Address is required", "When the required field 'Address' is submitted empty, no error is returned.");
+        ExtentTestNGITestListener.log(Status.PASS, "When the required 'Address' field is left empty, the error: '" + checkoutPage().getValidationAddressField().getText() + "' is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "When two fields are left empty on Checkout form, two errors should be displayed")
     public void twoFieldsEmptyTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().forkAtCheckoutForm();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found in the shopping cart: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The Checkout Page is displayed with 'Awesome Granite Chips' in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("The Checkout Page is not displayed.");
         }
 
-        checkoutPage.clickCheckoutButton();
-        checkoutPage.setFirstNameField("");
-        checkoutPage.setLastNameField("");
-        checkoutPage.setAddressField("Catch me if you can");
-        checkoutPage.clickContinueCheckoutButton();
+        checkoutPage().setFirstNameField("");
+        checkoutPage().setLastNameField("");
+        checkoutPage().setAddressField("Catch me if you can");
+        checkoutPage().clickContinueCheckoutButton();
 
-        if (checkoutPage.getValidationFirstField().getText().equals("First Name is required")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "When 'First Name' field is left empty, the error '" + checkoutPage.getValidationFirstField().getText() + "' is displayed.");
+        if (checkoutPage().getValidationFirstField().getText().equals("First Name is required")) {
+            ExtentTestNGITestListener.log(Status.PASS, "When 'First Name' field is left empty, the error '" + checkoutPage().getValidationFirstField().getText() + "' is displayed.");
         } else {
-            softAssert.fail("When the required field 'First Name' is submitted empty, no error is returned.");
+            softAssert().fail("When the required field 'First Name' is submitted empty, no error is returned.");
         }
 
-        if (checkoutPage.getValidationLastField().getText().equals("Last Name is required")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "When 'Last Name' field is left empty, the error: '" + checkoutPage.getValidationLastField().getText() + "' is displayed.");
+        if (checkoutPage().getValidationLastField().getText().equals("Last Name is required")) {
+            ExtentTestNGITestListener.log(Status.PASS, "When 'Last Name' field is left empty, the error: '" + checkoutPage().getValidationLastField().getText() + "' is displayed.");
         } else {
-            softAssert.fail("When the required field 'Last Name' is submitted empty, no error is returned.");
+            softAssert().fail("When the required field 'Last Name' is submitted empty, no error is returned.");
         }
 
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 
     @Test(description = "When three fields are left empty on Checkout form, three errors should be displayed")
     public void threeFieldsEmptyTest() {
-        checkoutPage.addAwesomeChipsToCart();
+        checkoutPage().forkAtCheckoutForm();
 
-        if (checkoutPage.getAwesomeChipsProduct().getText().equals("Awesome Granite Chips")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "Product found in the shopping cart: " + checkoutPage.getAwesomeChipsProduct().getText());
+        if (checkoutPage().getCheckoutPage().getText().equals("Your information")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The Checkout Page is displayed with 'Awesome Granite Chips' in the shopping cart.");
         } else {
-            softAssert.fail("Shopping cart was not updated correctly, the product " + checkoutPage.getAwesomeChipsProduct().getText() + " was not found");
+            softAssert().fail("The Checkout Page is not displayed.");
         }
 
-        checkoutPage.clickCheckoutButton();
-        checkoutPage.setFirstNameField("");
-        checkoutPage.setLastNameField("");
-        checkoutPage.setAddressField("");
-        checkoutPage.clickContinueCheckoutButton();
+        checkoutPage().setFirstNameField("");
+        checkoutPage().setLastNameField("");
+        checkoutPage().setAddressField("");
+        checkoutPage().clickContinueCheckoutButton();
 
         List<String> expectedErrors = new ArrayList<>();
         expectedErrors.add("First Name is required");
         expectedErrors.add("Last Name is required");
         expectedErrors.add("Address is required");
 
-        List<WebElement> displayedErrors = checkoutPage.getDisplayedErrors();
-
-        List<String> actualDisplayedErrors = new ArrayList<>();
-        for (WebElement displayedError : displayedErrors) {
-            actualDisplayedErrors.add(displayedError.getText());
-        }
+        List<String> actualDisplayedErrors = checkoutPage().getDisplayedErrorTexts();
 
         Assert.assertEquals(actualDisplayedErrors, expectedErrors, "Not all errors are displayed, only " + actualDisplayedErrors + " is displayed.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "When the user leaves all 3 mandatory fields empty, 3 errors are displayed: " + actualDisplayedErrors);
+        ExtentTestNGITestListener.log(Status.PASS, "When the user leaves all 3 mandatory fields empty, 3 errors are displayed: " + actualDisplayedErrors);
 
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 }
 
@@ -0,0 +1,128 @@
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+// How the DistributedRun coordinator hands out tests, without starting any worker JVM or browser.
+// The workers are played by the test: next() is a NEXT, result() a RESULT and left() a closed connection.
+public class DistributedRunTest {
+
+    private final List<TestRecord> reported = new ArrayList<>();
+
+    // Four tests of 5, 4, 3 and 2 seconds on two workers: A and D on the first, B and C on the second.
+    private DistributedRun coordinator(int workers) {
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        estimates.put("Suite.a", 5000L);
+        estimates.put("Suite.b", 4000L);
+        estimates.put("Suite.c", 3000L);
+        estimates.put("Suite.d", 2000L);
+        reported.clear();
+        DistributedRun run = new DistributedRun(estimates, workers);
+        run.report = (record, category) -> reported.add(record);
+        return run;
+    }
+
+    private static TestRecord passed(String method) {
+        return TestRecord.fromJson("{\"method\":\"" + method + "\",\"status\":\"pass\"}");
+    }
+
+    @Test(description = "Every worker starts with its share of the tests, longest first")
+    public void plansLongestFirstOverTheWorkers() {
+        DistributedRun run = coordinator(2);
+        run.joined("local-1");
+        run.joined("local-2");
+        assertEquals(run.next("local-1"), "Suite.a");
+        assertEquals(run.next("local-2"), "Suite.b");
+        assertEquals(run.next("local-2"), "Suite.c");
+        assertEquals(run.next("local-1"), "Suite.d");
+        assertNull(run.next("local-1"));
+        assertNull(run.next("local-2"));
+        assertTrue(run.isFinished());
+    }
+
+    @Test(description = "A worker out of work takes the shortest test of the worker with the most work left")
+    public void stealsTheShortestTestOfTheBusiestWorker() {
+        DistributedRun run = coordinator(2);
+        run.joined("local-1");
+        run.joined("remote");
+        assertEquals(run.next("local-1"), "Suite.a");
+        assertEquals(run.next("remote"), "Suite.c");
+        assertEquals(run.next("remote"), "Suite.b");
+        assertEquals(run.next("remote"), "Suite.d");
+        assertNull(run.next("remote"));
+        assertFalse(run.isFinished());
+        assertNull(run.next("local-1"));
+        assertTrue(run.isFinished());
+    }
+
+    @Test(description = "The test of a worker that dies is run once more by another worker, before the others")
+    public void retriesTheTestOfALostWorkerOnce() {
+        DistributedRun run = coordinator(1);
+        run.joined("local-1");
+        run.joined("remote");
+        assertEquals(run.next("local-1"), "Suite.a");
+        run.left("local-1", 0);
+        assertEquals(run.next("remote"), "Suite.a");
+        run.left("remote", 0);
+
+        assertEquals(run.failedTests(), Set.of("Suite.a"));
+        assertEquals(reported.size(), 1);
+        assertEquals(reported.get(0).getMethod(), "Suite.a");
+        assertEquals(reported.get(0).getStatus(), "fail");
+    }
+
+    @Test(description = "The test of a worker that dies is run next, before the other worker's own tests")
+    public void runsTheTestOfALostWorkerNext() {
+        DistributedRun run = coordinator(2);
+        run.joined("local-1");
+        run.joined("local-2");
+        assertEquals(run.next("local-1"), "Suite.a");
+        assertEquals(run.next("local-2"), "Suite.b");
+        assertEquals(run.next("local-1"), "Suite.d");
+        run.left("local-1", 0);
+
+        assertEquals(run.next("local-2"), "Suite.d");
+        assertEquals(run.next("local-2"), "Suite.c");
+        assertNull(run.next("local-2"));
+        assertTrue(run.isFinished());
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test(description = "A worker that dies after sending its result does not get its test run twice")
+    public void keepsTheResultOfAWorkerThatDiesAfterSendingIt() {
+        DistributedRun run = coordinator(1);
+        run.joined("local-1");
+        run.joined("remote");
+        assertEquals(run.next("local-1"), "Suite.a");
+        run.result("local-1", passed("Suite.a"));
+        run.left("local-1", 0);
+
+        assertEquals(run.next("remote"), "Suite.d");
+        assertEquals(run.next("remote"), "Suite.c");
+        assertEquals(run.next("remote"), "Suite.b");
+        assertNull(run.next("remote"));
+        assertTrue(run.isFinished());
+        assertTrue(run.failedTests().isEmpty());
+        assertEquals(reported.size(), 1);
+    }
+
+    @Test(description = "Failed results are counted, passed ones are not")
+    public void countsFailedResults() {
+        DistributedRun run = coordinator(1);
+        run.joined("local-1");
+        assertEquals(run.next("local-1"), "Suite.a");
+        run.result("local-1", TestRecord.failed("Suite.a", "local-1", "Expected true", 0, 1));
+        assertEquals(run.next("local-1"), "Suite.b");
+        run.result("local-1", passed("Suite.b"));
+        assertEquals(run.failedTests(), Set.of("Suite.a"));
+        assertEquals(reported.size(), 2);
+    }
+}
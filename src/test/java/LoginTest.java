@@ -3,7 +3,6 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
@@ -25,15 +24,12 @@ import static org.testng.Assert.assertEquals;
 // By extending Hooks, CheckoutTest inherits the setup and teardown methods for WebDriver.
 public class LoginTest extends Hooks {
 
-    // Declaring a public variable of type CheckoutPage named 'checkoutPage'.
-    // This will be used to interact with the CheckoutPage object during the tests.
-    public LoginPage loginPage;
+    // Declaring the page objects of the current worker thread.
+    // TestNG shares one instance of this class between the threads of a parallel run,
+    // so every thread keeps its own page objects and soft assertions.
+    private final ThreadLocal<LoginPage> loginPages = new ThreadLocal<>();
 
-    // Declaring a public variable of type WebDriverWait named 'wait'.
-    // WebDriverWait is used to explicitly wait for certain conditions or elements during test execution.
-    public WebDriverWait wait;
-
-    public SoftAssert softAssert;
+    private final ThreadLocal<SoftAssert> softAsserts = new ThreadLocal<>();
 
     // Method annotated with @BeforeMethod, indicating that it will run before each test method.
     // This method is used to set up the page objects and other necessary components before each test.
@@ -42,167 +38,160 @@ public class LoginTest extends Hooks {
 
         // Initializing the checkoutPage object with the current WebDriver instance.
         // This allows the test methods to interact with elements on the checkout page.
-        loginPage = new LoginPage(driver);
+        loginPages.set(new LoginPage(getDriver()));
+
+        softAsserts.set(new SoftAssert());
+    }
 
-        // Initializing the WebDriverWait object with the current WebDriver instance and a timeout of 30 seconds.
-        // This wait will be used to pause the execution until certain conditions are met or elements are found.
-        wait = new WebDriverWait(driver, 30);
-        softAssert = new SoftAssert();
+    public LoginPage loginPage() {
+        return loginPages.get();
+    }
+
+    public SoftAssert softAssert() {
+        return softAsserts.get();
     }
 
     @Test(description = "Login test")
     public void loginTest() {
-        loginPage.clickLoginIcon();
+        loginPage().clickLoginIcon();
 
-        if (loginPage.getConfirmationLogin().getText().equals("Login")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, loginPage.getConfirmationLogin().getText() + " Modal was successfully displayed.");
+        if (loginPage().getConfirmationLogin().getText().equals("Login")) {
+            ExtentTestNGITestListener.log(Status.PASS, loginPage().getConfirmationLogin().getText() + " Modal was successfully displayed.");
         } else {
-            softAssert.fail("Login Modal is not displayed on the page.");
+            softAssert().fail("Login Modal is not displayed on the page.");
         }
 
-        loginPage.setUserNameField("dino");
-        loginPage.setPasswordField("choochoo");
-        loginPage.clickLoginButton();
-        assertEquals(loginPage.getUserLoggedIn().getText(), "dino", "The user was unable to login.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user 'dino' is successfully logged in");
-        softAssert.assertAll();
+        loginPage().setUserNameField("dino");
+        loginPage().setPasswordField("choochoo");
+        loginPage().clickLoginButton();
+        assertEquals(loginPage().getUserLoggedIn().getText(), "dino", "The user was unable to login.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user 'dino' is successfully logged in");
+        softAssert().assertAll();
     }
 
     @Test(description = "Successfully sign out a user test")
     public void signOutUserTest() {
-        loginPage.loginDino();
+        loginPage().seedLoginDino();
 
-        if (loginPage.getUserLoggedIn().getText().equals("dino")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The user '" + loginPage.getUserLoggedIn().getText() + "' was successfully logged in.");
+        if (loginPage().getUserLoggedIn().getText().equals("dino")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The user '" + loginPage().getUserLoggedIn().getText() + "' was successfully logged in.");
         } else {
-            softAssert.fail("The user 'dino' has not successfully log in.");
+            softAssert().fail("The user 'dino' has not successfully log in.");
         }
 
-        loginPage.clickSignOutButton();
+        loginPage().clickSignOutButton();
 
-        try {
-            if (loginPage.getUserLoggedIn().isDisplayed()) {
-                Assert.fail("Element " + loginPage.getUserLoggedIn().getText() + " is still present even if it's expected not to be.");
-            }
-        } catch (NoSuchElementException e) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The user Dino is successfully signed out.");
-            Assert.assertTrue(true, "Element is not present as expected");
-        }
+        loginPage().assertAbsent(loginPage().getUserLoggedInLocator(), "The user 'dino' is still displayed even if it's expected not to be.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user Dino is successfully signed out.");
 
-        softAssert.assertAll();
+        softAssert().assertAll();
     }
 
     @Test(description = "Entering incorrect username test")
     public void incorrectUsernameTest() {
-        loginPage.clickLoginIcon();
+        loginPage().clickLoginIcon();
 
-        if (loginPage.getConfirmationLogin().getText().equals("Login")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, loginPage.getConfirmationLogin().getText() + " Modal was successfully displayed.");
+        if (loginPage().getConfirmationLogin().getText().equals("Login")) {
+            ExtentTestNGITestListener.log(Status.PASS, loginPage().getConfirmationLogin().getText() + " Modal was successfully displayed.");
         } else {
-            softAssert.fail("Login Modal is not displayed on the page.");
+            softAssert().fail("Login Modal is not displayed on the page.");
         }
 
-        loginPage.setUserNameField("rino");
-        loginPage.setPasswordField("choochoo");
-        loginPage.clickLoginButton();
-        assertEquals(loginPage.getErrorMessage().getText(), "Incorrect username or password!", "No error is displayed when user enters incorrect Username.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user was unable to login, error message is displayed.");
-        softAssert.assertAll();
+        loginPage().setUserNameField("rino");
+        loginPage().setPasswordField("choochoo");
+        loginPage().clickLoginButton();
+        assertEquals(loginPage().getErrorMessage().getText(), "Incorrect username or password!", "No error is displayed when user enters incorrect Username.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user was unable to login, error message is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Entering incorrect password")
     public void incorrectPasswordTest() {
-        loginPage.clickLoginIcon();
+        loginPage().clickLoginIcon();
 
-        if (loginPage.getConfirmationLogin().getText().equals("Login")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, loginPage.getConfirmationLogin().getText() + " Modal was successfully displayed.");
+        if (loginPage().getConfirmationLogin().getText().equals("Login")) {
+            ExtentTestNGITestListener.log(Status.PASS, loginPage().getConfirmationLogin().getText() + " Modal was successfully displayed.");
         } else {
-            softAssert.fail("Login Modal is not displayed on the page.");
+            softAssert().fail("Login Modal is not displayed on the page.");
         }
 
-        loginPage.setUserNameField("dino");
-        loginPage.setPasswordField("choo");
-        loginPage.clickLoginButton();
-        assertEquals(loginPage.getErrorMessage().getText(), "Incorrect username or password!", "No error is displayed when user enters incorrect Password.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user was unable to login, error message is displayed.");
-        softAssert.assertAll();
+        loginPage().setUserNameField("dino");
+        loginPage().setPasswordField("choo");
+        loginPage().clickLoginButton();
+        assertEquals(loginPage().getErrorMessage().getText(), "Incorrect username or password!", "No error is displayed when user enters incorrect Password.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user was unable to login, error message is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Entering incorrect username and incorrect password")
     public void incorrectUsernameAndPasswordTest() {
-        loginPage.clickLoginIcon();
+        loginPage().clickLoginIcon();
 
-        if (loginPage.getConfirmationLogin().getText().equals("Login")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, loginPage.getConfirmationLogin().getText() + " Modal was successfully displayed.");
+        if (loginPage().getConfirmationLogin().getText().equals("Login")) {
+            ExtentTestNGITestListener.log(Status.PASS, loginPage().getConfirmationLogin().getText() + " Modal was successfully displayed.");
         } else {
-            softAssert.fail("Login Modal is not displayed on the page.");
+            softAssert().fail("Login Modal is not displayed on the page.");
         }
 
-        loginPage.setUserNameField("rino");
-        loginPage.setPasswordField("choo");
-        loginPage.clickLoginButton();
-        assertEquals(loginPage.getErrorMessage().getText(), "Incorrect username or password!", "No errors are displayed when user introduces incorrect Username ans Password.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user was unable to login, error message is displayed.");
-        softAssert.assertAll();
+        loginPage().setUserNameField("rino");
+        loginPage().setPasswordField("choo");
+        loginPage().clickLoginButton();
+        assertEquals(loginPage().getErrorMessage().getText(), "Incorrect username or password!", "No errors are displayed when user introduces incorrect Username ans Password.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user was unable to login, error message is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Blank input on username field")
     public void nullUsernameFieldTest() {
-        loginPage.clickLoginIcon();
+        loginPage().clickLoginIcon();
 
-        if (loginPage.getConfirmationLogin().getText().equals("Login")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, loginPage.getConfirmationLogin().getText() + " Modal was successfully displayed.");
+        if (loginPage().getConfirmationLogin().getText().equals("Login")) {
+            ExtentTestNGITestListener.log(Status.PASS, loginPage().getConfirmationLogin().getText() + " Modal was successfully displayed.");
         } else {
-            softAssert.fail("Login Modal is not displayed on the page.");
+            softAssert().fail("Login Modal is not displayed on the page.");
         }
 
-        loginPage.setUserNameField("");
-        loginPage.setPasswordField("choochoo");
-        loginPage.clickLoginButton();
-        assertEquals(loginPage.getErrorNullUsername().getText(), "Please fill in the username!", "No error is displayed when the Username field is submitted empty.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user was unable to login, the Username field was empty, error message is displayed.");
-        softAssert.assertAll();
+        loginPage().setUserNameField("");
+        loginPage().setPasswordField("choochoo");
+        loginPage().clickLoginButton();
+        assertEquals(loginPage().getErrorNullUsername().getText(), "Please fill in the username!", "No error is displayed when the Username field is submitted empty.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user was unable to login, the Username field was empty, error message is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Blank input on  password field")
     public void nullPasswordFieldTest() {
-        loginPage.clickLoginIcon();
+        loginPage().clickLoginIcon();
 
-        if (loginPage.getConfirmationLogin().getText().equals("Login")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, loginPage.getConfirmationLogin().getText() + " Modal was successfully displayed.");
+        if (loginPage().getConfirmationLogin().getText().equals("Login")) {
+            ExtentTestNGITestListener.log(Status.PASS, loginPage().getConfirmationLogin().getText() + " Modal was successfully displayed.");
         } else {
-            softAssert.fail("Login Modal is not displayed on the page.");
+            softAssert().fail("Login Modal is not displayed on the page.");
         }
 
-        loginPage.setUserNameField("dino");
-        loginPage.setPasswordField("");
-        loginPage.clickLoginButton();
-        assertEquals(loginPage.getErrorNullPassword().getText(), "Please fill in the password!", "No error is displayed when the Password field is submitted empty.");
-        ExtentTestNGITestListener.getTest().log(Status.PASS, "The user was unable to login, the Password field was empty, error message is displayed.");
-        softAssert.assertAll();
+        loginPage().setUserNameField("dino");
+        loginPage().setPasswordField("");
+        loginPage().clickLoginButton();
+        assertEquals(loginPage().getErrorNullPassword().getText(), "Please fill in the password!", "No error is displayed when the Password field is submitted empty.");
+        ExtentTestNGITestListener.log(Status.PASS, "The user was unable to login, the Password field was empty, error message is displayed.");
+        softAssert().assertAll();
     }
 
     @Test(description = "Clicking Reset when a user is logged in")
     public void resetLoggedUserTest() {
-        loginPage.loginDino();
+        loginPage().seedLoginDino();
 
-        if (loginPage.getUserLoggedIn().getText().equals("dino")) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The user '" + loginPage.getUserLoggedIn().getText() + "' was successfully logged in.");
+        if (loginPage().getUserLoggedIn().getText().equals("dino")) {
+            ExtentTestNGITestListener.log(Status.PASS, "The user '" + loginPage().getUserLoggedIn().getText() + "' was successfully logged in.");
         } else {
-            softAssert.fail("The user 'dino' has not successfully log in.");
+            softAssert().fail("The user 'dino' has not successfully log in.");
         }
 
-        loginPage.clickWhenReady(loginPage.getResetButton());
+        loginPage().clickWhenReady(loginPage().getResetButtonLocator());
 
-        try {
-            if (loginPage.getUserLoggedIn().isDisplayed()) {
-                Assert.fail("Element is still present.");
-            }
-        } catch (NoSuchElementException e) {
-            ExtentTestNGITestListener.getTest().log(Status.PASS, "The page was reset, the user Dino is signed out.");
-            Assert.assertTrue(true, "Element is not present as expected");
-        }
-        softAssert.assertAll();
+        loginPage().assertAbsent(loginPage().getUserLoggedInLocator(), "The user 'dino' is still logged in after reset.");
+        ExtentTestNGITestListener.log(Status.PASS, "The page was reset, the user Dino is signed out.");
+        softAssert().assertAll();
     }
 }
 
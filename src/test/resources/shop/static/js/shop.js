@@ -0,0 +1,509 @@
+// Minimal stand-in for the demo shop at https://fasttrackit-test.netlify.app/, used by -Dshop.local=true.
+// It renders the markup the page objects locate (same ids, classes, texts and routes) and keeps the visitor's
+// cart, wishlist and login in localStorage. Plain ES5 without a framework, so every driver can run it.
+(function () {
+    'use strict';
+
+    var PRODUCTS = [
+        {id: 1, name: 'Awesome Granite Chips', price: 15.99},
+        {id: 2, name: 'Incredible Concrete Hat', price: 7.99},
+        {id: 3, name: 'Awesome Metal Chair', price: 15.99},
+        {id: 4, name: 'Practical Wooden Bacon', price: 29.99},
+        {id: 5, name: 'Awesome Soft Shirt', price: 29.99},
+        {id: 6, name: 'Refined Steel Ball', price: 1.99},
+        {id: 7, name: 'Practical Metal Mouse', price: 9.99},
+        {id: 8, name: 'Licensed Steel Gloves', price: 14.99},
+        {id: 9, name: 'Gorgeous Soft Pizza', price: 19.99},
+        {id: 10, name: 'Refined Frozen Mouse', price: 9.99}
+    ];
+
+    var USERS = {dino: 'choochoo', turtle: 'choochoo', beetle: 'choochoo'};
+
+    var SORTS = [
+        {value: 'az', label: 'Sort by name (A to Z)'},
+        {value: 'za', label: 'Sort by name (Z to A)'},
+        {value: 'lohi', label: 'Sort by price (low to high)'},
+        {value: 'hilo', label: 'Sort by price (high to low)'}
+    ];
+
+    var STORAGE_KEY = 'shop-state';
+
+    // Font Awesome 5 icon classes as rendered by the real shop; the shapes themselves do not matter here.
+    var ICONS = {
+        'shopping-bag': 'fa-w-14',
+        'shopping-cart': 'fa-w-18',
+        'heart': 'fa-w-16',
+        'heart-broken': 'fa-w-16',
+        'question': 'fa-w-12',
+        'undo': 'fa-w-16',
+        'sign-in-alt': 'fa-w-16',
+        'sign-out-alt': 'fa-w-16',
+        'cart-plus': 'fa-w-18',
+        'plus-circle': 'fa-w-16',
+        'minus-circle': 'fa-w-16',
+        'trash': 'fa-w-14'
+    };
+
+    // Persisted visitor state.
+    var state = load();
+    // Page state that the real shop does not keep across reloads either.
+    var view = {search: '', sort: 'az', modal: null, loginError: '', checkoutErrors: []};
+
+    function emptyState() {
+        return {cart: [], wishlist: [], user: null};
+    }
+
+    function load() {
+        try {
+            var stored = JSON.parse(window.localStorage.getItem(STORAGE_KEY));
+            return stored && stored.cart && stored.wishlist ? stored : emptyState();
+        } catch (e) {
+            return emptyState();
+        }
+    }
+
+    function save() {
+        window.localStorage.setItem(STORAGE_KEY, JSON.stringify(state));
+    }
+
+    function product(id) {
+        for (var i = 0; i < PRODUCTS.length; i++) {
+            if (PRODUCTS[i].id === id) {
+                return PRODUCTS[i];
+            }
+        }
+        return null;
+    }
+
+    function cartLine(id) {
+        for (var i = 0; i < state.cart.length; i++) {
+            if (state.cart[i].id === id) {
+                return state.cart[i];
+            }
+        }
+        return null;
+    }
+
+    function icon(name, extra, action, arg) {
+        return '<svg class="svg-inline--fa fa-' + name + ' ' + ICONS[name] + (extra ? ' ' + extra : '') + '"'
+            + ' data-action="' + action + '"' + (arg === undefined ? '' : ' data-arg="' + arg + '"')
+            + ' xmlns="http://www.w3.org/2000/svg" viewBox="0 0 512 512" width="16" height="16" role="img">'
+            + '<rect width="512" height="512"></rect></svg>';
+    }
+
+    function link(text, route) {
+        return '<a href="#' + route + '" data-action="go" data-arg="' + route + '">' + text + '</a>';
+    }
+
+    function money(amount) {
+        return '$' + amount;
+    }
+
+    function route() {
+        var hash = window.location.hash.replace(/^#/, '');
+        return hash === '' ? '/' : hash;
+    }
+
+    function go(path) {
+        view.checkoutErrors = [];
+        if (route() === path) {
+            render();
+        } else {
+            window.location.hash = '#' + path;
+        }
+    }
+
+    // Header
+
+    function header() {
+        var html = '<nav class="navbar"><div class="navbar-brand">' + icon('shopping-bag', 'fa-3x brand-logo', 'go', '/') + '</div>'
+            + '<div class="navbar-icons">'
+            + '<span>' + icon('shopping-cart', '', 'go', '/cart') + '</span>'
+            + '<span>' + icon('heart', '', 'go', '/wishlist');
+        if (state.wishlist.length > 0) {
+            html += '<span class="fa-layers-counter shopping_cart_badge" data-action="go" data-arg="/wishlist">' + state.wishlist.length + '</span>';
+        }
+        html += '</span>'
+            + '<span>' + icon('question', '', 'help') + '</span>'
+            + '<span>' + icon('undo', '', 'reset') + '</span>';
+        if (state.user) {
+            html += '<span>' + link(state.user, '/account') + '</span>'
+                + '<span>' + icon('sign-out-alt', '', 'logout') + '</span>';
+        } else {
+            html += '<span>' + icon('sign-in-alt', '', 'login') + '</span>';
+        }
+        return html + '</div></nav>';
+    }
+
+    function title(text) {
+        return '<div class="subheader-container"><h1 class="text-muted">' + text + '</h1></div>';
+    }
+
+    // Pages
+
+    function productCard(p, actions) {
+        return '<div class="col"><div class="card"><div class="card-body">'
+            + '<a class="card-link" href="#/product/' + p.id + '" data-action="go" data-arg="/product/' + p.id + '">' + p.name + '</a>'
+            + '<p class="card-text"><span style="font-weight: bold; font-size: 16px;">' + p.price + '</span></p>'
+            + actions + '</div></div></div>';
+    }
+
+    function productsPage() {
+        var query = view.search.toLowerCase();
+        var list = PRODUCTS.filter(function (p) {
+            return p.name.toLowerCase().indexOf(query) >= 0;
+        });
+        list.sort(function (a, b) {
+            switch (view.sort) {
+                case 'za':
+                    return a.name < b.name ? 1 : a.name > b.name ? -1 : 0;
+                case 'lohi':
+                    return a.price - b.price;
+                case 'hilo':
+                    return b.price - a.price;
+                default:
+                    return a.name < b.name ? -1 : a.name > b.name ? 1 : 0;
+            }
+        });
+
+        var html = title('Products')
+            + '<div class="container"><div class="row">'
+            + '<input id="input-search" class="form-control form-control-sm" type="text" placeholder="Search" value="' + view.search + '">'
+            + '<button type="button" class="btn btn-light btn-sm" data-action="search">Search</button>'
+            + '<select class="sort-products-select form-control form-control-sm">';
+        for (var i = 0; i < SORTS.length; i++) {
+            html += '<option value="' + SORTS[i].value + '"' + (SORTS[i].value === view.sort ? ' selected' : '') + '>' + SORTS[i].label + '</option>';
+        }
+        html += '</select></div>'
+            + '<div class="row row-cols-xl-4 row-cols-lg-3 row-cols-md-2 row-cols-sm-2 row-cols-1">';
+        for (var j = 0; j < list.length; j++) {
+            html += productCard(list[j], '');
+        }
+        return html + '</div></div>';
+    }
+
+    function productPage(id) {
+        var p = product(id);
+        if (!p) {
+            return productsPage();
+        }
+        return title(p.name)
+            + '<div class="container"><p><span style="font-weight: bold; font-size: 16px;">' + p.price + '</span></p>'
+            + icon('cart-plus', 'fa-3x', 'add-to-cart', p.id) + ' '
+            + icon('heart', 'fa-3x', 'add-to-wishlist', p.id) + '</div>';
+    }
+
+    function totals() {
+        var items = 0;
+        for (var i = 0; i < state.cart.length; i++) {
+            items += product(state.cart[i].id).price * state.cart[i].quantity;
+        }
+        // Amounts are shown unrounded, so items + tax on the page equals the total on the page.
+        var tax = Math.round(items * 5) / 100;
+        return '<table class="amount-total"><tbody>'
+            + '<tr><td>Items total:</td><td class="amount">' + money(items) + '</td></tr>'
+            + '<tr><td>Tax:</td><td class="amount">' + money(tax) + '</td></tr>'
+            + '<tr><td>Total:</td><td class="amount">' + money(items + tax) + '</td></tr>'
+            + '</tbody></table>';
+    }
+
+    function cartPage() {
+        var html = title('Your cart');
+        if (state.cart.length === 0) {
+            return html + '<div class="text-center container">How about adding some products in your cart?</div>';
+        }
+        html += '<div class="container">';
+        for (var i = 0; i < state.cart.length; i++) {
+            var p = product(state.cart[i].id);
+            var quantity = state.cart[i].quantity;
+            html += '<div class="row">'
+                + '<div class="col-md-auto">' + link(p.name, '/product/' + p.id) + '</div>'
+                + '<div class="col-md-auto">' + icon('minus-circle', '', 'decrease', p.id) + ' <span>' + quantity + '</span> '
+                + icon('plus-circle', '', 'increase', p.id) + '</div>'
+                + '<div class="col-md-auto">' + p.price + '</div>'
+                + '<div class="col-md-auto">' + icon('trash', '', 'remove-from-cart', p.id) + '</div>'
+                + '</div>';
+        }
+        return html + totals()
+            + '<div><button type="button" class="btn btn-danger" data-action="go" data-arg="/products">Continue shopping</button>'
+            + '<button type="button" class="btn btn-success" data-action="go" data-arg="/checkout-info">Checkout</button></div>'
+            + '</div>';
+    }
+
+    function field(id, label, error) {
+        return '<div class="form-group"><label for="' + id + '">' + label + '</label>'
+            + '<input id="' + id + '" class="form-control" type="text">'
+            + (error ? '<div class="error">' + error + '</div>' : '') + '</div>';
+    }
+
+    function checkoutInfoPage() {
+        var errors = view.checkoutErrors;
+        return title('Your information')
+            + '<div class="container"><form>'
+            + field('first-name', 'First Name', errors[0])
+            + field('last-name', 'Last Name', errors[1])
+            + field('address', 'Address', errors[2])
+            + '<button type="button" class="btn btn-danger" data-action="go" data-arg="/cart">Cancel</button>'
+            + '<button type="button" class="btn btn-success" data-action="continue-checkout">Continue checkout</button>'
+            + '</form></div>';
+    }
+
+    function checkoutSummaryPage() {
+        var html = title('Order summary') + '<div class="container">';
+        for (var i = 0; i < state.cart.length; i++) {
+            var p = product(state.cart[i].id);
+            html += '<div class="row"><div class="col-md-auto">' + p.name + '</div>'
+                + '<div class="col-md-auto">' + state.cart[i].quantity + ' x ' + p.price + '</div></div>';
+        }
+        return html + totals()
+            + '<div><button type="button" class="btn btn-danger" data-action="go" data-arg="/cart">Cancel</button>'
+            + '<button type="button" class="btn btn-success" data-action="complete-order">Complete your order</button></div>'
+            + '</div>';
+    }
+
+    function checkoutCompletePage() {
+        return title('Order complete')
+            + '<div class="container"><div class="text-center">Thank you for your order!</div>'
+            + '<button type="button" class="btn btn-danger" data-action="go" data-arg="/products">Continue shopping</button></div>';
+    }
+
+    function wishlistPage() {
+        var html = title('Wishlist') + '<div class="container">'
+            + '<div class="row row-cols-xl-4 row-cols-lg-3 row-cols-md-2 row-cols-sm-2 row-cols-1">';
+        for (var i = 0; i < state.wishlist.length; i++) {
+            var p = product(state.wishlist[i]);
+            html += productCard(p, icon('cart-plus', '', 'add-to-cart', p.id) + ' ' + icon('heart-broken', 'fa-2x', 'remove-from-wishlist', p.id));
+        }
+        return html + '</div></div>';
+    }
+
+    function accountPage() {
+        return title('Account') + '<div class="container">Logged in as ' + (state.user || 'guest') + '</div>';
+    }
+
+    function modal() {
+        if (view.modal === 'login') {
+            return '<div class="modal" role="dialog"><div class="modal-dialog"><div class="modal-content">'
+                + '<div class="modal-header"><div class="modal-title h4">Login</div>'
+                + '<button type="button" class="close" data-action="close-modal">&times;</button></div>'
+                + '<div class="modal-body"><form>'
+                + '<input id="user-name" class="form-control" type="text" placeholder="Username">'
+                + '<input id="password" class="form-control" type="password" placeholder="Password">'
+                + (view.loginError ? '<div class="error">' + view.loginError + '</div>' : '')
+                + '<button type="button" class="btn btn-primary" data-action="submit-login">Login</button>'
+                + '</form></div></div></div></div>';
+        }
+        if (view.modal === 'help') {
+            var users = '';
+            for (var name in USERS) {
+                if (USERS.hasOwnProperty(name)) {
+                    users += '<li>' + name + ' / ' + USERS[name] + '</li>';
+                }
+            }
+            return '<div class="modal" role="dialog"><div class="modal-dialog"><div class="modal-content">'
+                + '<div class="modal-header"><div class="modal-title h4">Help</div>'
+                + '<button type="button" class="close" data-action="close-modal">&times;</button></div>'
+                + '<div class="modal-body"><p>Valid usernames and passwords:</p><ul>' + users + '</ul></div>'
+                + '</div></div></div>';
+        }
+        return '';
+    }
+
+    function page() {
+        var path = route().split('?')[0];
+        var productRoute = /^\/product\/(\d+)$/.exec(path);
+        if (productRoute) {
+            return productPage(parseInt(productRoute[1], 10));
+        }
+        switch (path) {
+            case '/cart':
+                return cartPage();
+            case '/checkout-info':
+                return checkoutInfoPage();
+            case '/checkout-summary':
+                return checkoutSummaryPage();
+            case '/checkout-complete':
+                return checkoutCompletePage();
+            case '/wishlist':
+                return wishlistPage();
+            case '/account':
+                return accountPage();
+            default:
+                return productsPage();
+        }
+    }
+
+    function render() {
+        document.getElementById('root').innerHTML = header() + page() + modal();
+    }
+
+    // Actions
+
+    function value(id) {
+        var input = document.getElementById(id);
+        return input ? input.value : '';
+    }
+
+    function login() {
+        var user = value('user-name');
+        var password = value('password');
+        if (user === '') {
+            view.loginError = 'Please fill in the username!';
+        } else if (password === '') {
+            view.loginError = 'Please fill in the password!';
+        } else if (USERS[user] !== password) {
+            view.loginError = 'Incorrect username or password!';
+        } else {
+            state.user = user;
+            save();
+            view.modal = null;
+            view.loginError = '';
+        }
+        render();
+        if (view.modal === 'login') {
+            document.getElementById('user-name').value = user;
+            document.getElementById('password').value = password;
+        }
+    }
+
+    function continueCheckout() {
+        var values = [value('first-name'), value('last-name'), value('address')];
+        var messages = ['First Name is required', 'Last Name is required', 'Address is required'];
+        var errors = [];
+        var valid = true;
+        for (var i = 0; i < values.length; i++) {
+            errors.push(values[i] === '' ? messages[i] : '');
+            valid = valid && values[i] !== '';
+        }
+        if (valid) {
+            go('/checkout-summary');
+            return;
+        }
+        view.checkoutErrors = errors;
+        render();
+        document.getElementById('first-name').value = values[0];
+        document.getElementById('last-name').value = values[1];
+        document.getElementById('address').value = values[2];
+    }
+
+    var ACTIONS = {
+        'go': function (arg) {
+            go(arg);
+        },
+        'search': function () {
+            view.search = value('input-search');
+            render();
+        },
+        'help': function () {
+            view.modal = 'help';
+            render();
+        },
+        'login': function () {
+            view.modal = 'login';
+            view.loginError = '';
+            render();
+        },
+        'close-modal': function () {
+            view.modal = null;
+            render();
+        },
+        'submit-login': login,
+        'logout': function () {
+            state.user = null;
+            save();
+            render();
+        },
+        'reset': function () {
+            state = emptyState();
+            save();
+            view.search = '';
+            view.modal = null;
+            render();
+        },
+        'add-to-cart': function (arg) {
+            var id = parseInt(arg, 10);
+            var line = cartLine(id);
+            if (line) {
+                line.quantity++;
+            } else {
+                state.cart.push({id: id, quantity: 1});
+            }
+            save();
+            render();
+        },
+        'increase': function (arg) {
+            cartLine(parseInt(arg, 10)).quantity++;
+            save();
+            render();
+        },
+        'decrease': function (arg) {
+            var line = cartLine(parseInt(arg, 10));
+            if (line.quantity > 1) {
+                line.quantity--;
+                save();
+                render();
+            }
+        },
+        'remove-from-cart': function (arg) {
+            var id = parseInt(arg, 10);
+            state.cart = state.cart.filter(function (line) {
+                return line.id !== id;
+            });
+            save();
+            render();
+        },
+        'add-to-wishlist': function (arg) {
+            var id = parseInt(arg, 10);
+            if (state.wishlist.indexOf(id) < 0) {
+                state.wishlist.push(id);
+                save();
+            }
+            render();
+        },
+        'remove-from-wishlist': function (arg) {
+            var id = parseInt(arg, 10);
+            state.wishlist = state.wishlist.filter(function (item) {
+                return item !== id;
+            });
+            save();
+            render();
+        },
+        'continue-checkout': continueCheckout,
+        'complete-order': function () {
+            state.cart = [];
+            save();
+            go('/checkout-complete');
+        }
+    };
+
+    document.addEventListener('click', function (event) {
+        for (var node = event.target; node && node.getAttribute; node = node.parentNode) {
+            var action = node.getAttribute('data-action');
+            if (action && ACTIONS[action]) {
+                event.preventDefault();
+                ACTIONS[action](node.getAttribute('data-arg'));
+                return;
+            }
+        }
+    });
+
+    document.addEventListener('change', function (event) {
+        var target = event.target;
+        if (target.className && target.className.indexOf && target.className.indexOf('sort-products-select') >= 0) {
+            view.sort = target.value;
+            render();
+        }
+    });
+
+    window.addEventListener('hashchange', function () {
+        view.modal = null;
+        render();
+    });
+
+    window.addEventListener('storage', function () {
+        state = load();
+        render();
+    });
+
+    render();
+})();